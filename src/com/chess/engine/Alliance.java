@@ -30,6 +30,11 @@ public enum Alliance {
             return false;
         }
 
+        @Override
+        public Alliance opposite() {
+            return BLACK;
+        }
+
         @Override
         public Player choosePlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer) {
             return whitePlayer;
@@ -57,6 +62,11 @@ public enum Alliance {
             return true;
         }
 
+        @Override
+        public Alliance opposite() {
+            return WHITE;
+        }
+
         @Override
         public Player choosePlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer) {
             return blackPlayer;
@@ -67,6 +77,7 @@ public enum Alliance {
     public abstract int getOppositeDirection();
     public abstract boolean isWhite();
     public abstract boolean isBlack();
+    public abstract Alliance opposite();
 
     public abstract boolean isPawnPromotionSquare(int position);
     public abstract Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer);
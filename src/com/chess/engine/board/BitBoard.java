@@ -0,0 +1,237 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import static com.chess.engine.board.BitBoardUtils.*;
+
+// Bitboard view of a position: one long per piece type and alliance plus occupancy masks.
+// Bit i is set when tile coordinate i holds a matching piece, see BitBoardUtils.
+public final class BitBoard {
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+    // cheapest first, the order least valuable attackers are looked for in
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    // no exchange on one tile lasts longer than the 32 pieces
+    static final int MAX_EXCHANGE_LENGTH = 32;
+
+    private final long[] pieces;
+    private final long[] allianceOccupancy;
+    private long occupied;
+
+    BitBoard() {
+        this.pieces = new long[Alliance.values().length * NUM_PIECE_TYPES];
+        this.allianceOccupancy = new long[Alliance.values().length];
+        this.occupied = BitBoardUtils.EMPTY;
+    }
+
+    private BitBoard(final BitBoard bitBoard) {
+        this.pieces = bitBoard.pieces.clone();
+        this.allianceOccupancy = bitBoard.allianceOccupancy.clone();
+        this.occupied = bitBoard.occupied;
+    }
+
+    // pieces may contain nulls for empty tiles
+    static BitBoard createBitBoard(final Iterable<Piece> pieces) {
+        final BitBoard bitBoard = new BitBoard();
+        for (final Piece piece : pieces) {
+            if (piece != null) {
+                bitBoard.addPiece(piece.getPieceAlliance(), piece.getPieceType(), piece.getPiecePosition());
+            }
+        }
+        return bitBoard;
+    }
+
+    BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    void addPiece(final Alliance alliance, final PieceType pieceType, final int square) {
+        final long bit = BitBoardUtils.squareBit(square);
+        this.pieces[index(alliance, pieceType)] |= bit;
+        this.allianceOccupancy[alliance.ordinal()] |= bit;
+        this.occupied |= bit;
+    }
+
+    void removePiece(final Alliance alliance, final PieceType pieceType, final int square) {
+        final long bit = ~BitBoardUtils.squareBit(square);
+        this.pieces[index(alliance, pieceType)] &= bit;
+        this.allianceOccupancy[alliance.ordinal()] &= bit;
+        this.occupied &= bit;
+    }
+
+    public long getPieces(final Alliance alliance, final PieceType pieceType) {
+        return this.pieces[index(alliance, pieceType)];
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        return this.allianceOccupancy[alliance.ordinal()];
+    }
+
+    public long getOccupied() {
+        return this.occupied;
+    }
+
+    public long getEmpty() {
+        return ~this.occupied;
+    }
+
+    public boolean isOccupied(final int square) {
+        return (this.occupied & BitBoardUtils.squareBit(square)) != 0;
+    }
+
+    public int getKingTile(final Alliance alliance) {
+        return Long.numberOfTrailingZeros(getPieces(alliance, PieceType.KING));
+    }
+
+    /* Attacks, looking outward from the target tile */
+    public boolean isSquareAttacked(final int tileCoordinate, final Alliance attacker) {
+        if ((KNIGHT_ATTACKS[tileCoordinate] & getPieces(attacker, PieceType.KNIGHT)) != 0
+                || (KING_ATTACKS[tileCoordinate] & getPieces(attacker, PieceType.KING)) != 0
+                // a pawn attacks this tile exactly when a defending pawn here would attack the pawn's tile
+                || (PAWN_ATTACKS[attacker.opposite().ordinal()][tileCoordinate]
+                        & getPieces(attacker, PieceType.PAWN)) != 0) {
+            return true;
+        }
+        final long queens = getPieces(attacker, PieceType.QUEEN);
+        return (rookAttacks(tileCoordinate, this.occupied) & (getPieces(attacker, PieceType.ROOK) | queens)) != 0
+                || (bishopAttacks(tileCoordinate, this.occupied) & (getPieces(attacker, PieceType.BISHOP) | queens)) != 0;
+    }
+
+    // every attacker piece hitting the tile, sliders see through anything missing from occupied
+    public long calculateAttackers(final int tileCoordinate, final Alliance attacker, final long occupied) {
+        final long queens = getPieces(attacker, PieceType.QUEEN);
+        return (KNIGHT_ATTACKS[tileCoordinate] & getPieces(attacker, PieceType.KNIGHT))
+                | (KING_ATTACKS[tileCoordinate] & getPieces(attacker, PieceType.KING))
+                | (PAWN_ATTACKS[attacker.opposite().ordinal()][tileCoordinate] & getPieces(attacker, PieceType.PAWN))
+                | (rookAttacks(tileCoordinate, occupied) & (getPieces(attacker, PieceType.ROOK) | queens))
+                | (bishopAttacks(tileCoordinate, occupied) & (getPieces(attacker, PieceType.BISHOP) | queens));
+    }
+
+    // enemy pieces giving check to the king of the given alliance
+    public long calculateCheckers(final Alliance alliance) {
+        return calculateAttackers(getKingTile(alliance), alliance.opposite(), this.occupied);
+    }
+
+    // pieces of the given alliance that are the only thing between their king and an enemy slider
+    public long calculatePinnedPieces(final Alliance alliance) {
+        final int kingTile = getKingTile(alliance);
+        final Alliance opponent = alliance.opposite();
+        final long queens = getPieces(opponent, PieceType.QUEEN);
+        long snipers = (rookAttacks(kingTile, EMPTY) & (getPieces(opponent, PieceType.ROOK) | queens))
+                | (bishopAttacks(kingTile, EMPTY) & (getPieces(opponent, PieceType.BISHOP) | queens));
+        long pinned = EMPTY;
+        while (snipers != 0) {
+            final int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            final long blockers = BETWEEN[kingTile][sniper] & this.occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & getOccupancy(alliance);
+            }
+        }
+        return pinned;
+    }
+
+    // whether a pseudo-legal move keeps the mover's king safe, given the checkers and pinned pieces
+    // of the position; no board is built, castle moves are already vetted when they are generated
+    public boolean isLegalMove(final Alliance mover,
+                               final int from,
+                               final int to,
+                               final boolean isEnPassant,
+                               final long pinned,
+                               final long checkers) {
+        final int kingTile = getKingTile(mover);
+        final Alliance opponent = mover.opposite();
+        if (from == kingTile) {
+            // the king must not shield the destination from a slider it is moving away from
+            return calculateAttackers(to, opponent, this.occupied ^ squareBit(from)) == 0;
+        }
+        if (isEnPassant) {
+            // two pawns leave the same rank at once, so simply look at the resulting occupancy
+            final long capturedPawn = squareBit(to - mover.getDirection() * 8);
+            final long occupiedAfter = (this.occupied ^ squareBit(from) ^ capturedPawn) | squareBit(to);
+            return (calculateAttackers(kingTile, opponent, occupiedAfter) & ~capturedPawn) == 0;
+        }
+        if (checkers != 0) {
+            // double check leaves only king moves, a single check must be captured or blocked
+            if ((checkers & (checkers - 1)) != 0) {
+                return false;
+            }
+            final int checker = Long.numberOfTrailingZeros(checkers);
+            if (((checkers | BETWEEN[kingTile][checker]) & squareBit(to)) == 0) {
+                return false;
+            }
+        }
+        return (pinned & squareBit(from)) == 0 || (LINE[kingTile][from] & squareBit(to)) != 0;
+    }
+
+    // Static exchange evaluation: the material won by the capture from 'from' to 'to' once both sides
+    // have recaptured on 'to' with their least valuable piece for as long as it pays. Sliders lined up
+    // behind a piece that has captured join in (x-rays). Pins are ignored, a king only recaptures
+    // if nothing defends the tile. capturedType is null for a move onto an empty tile.
+    // Allocates its swap list, the search goes through SearchBoard, which passes its own
+    public int staticExchangeEvaluation(final int from,
+                                        final int to,
+                                        final PieceType movedType,
+                                        final PieceType capturedType) {
+        return staticExchangeEvaluation(from, to, movedType, capturedType, new int[MAX_EXCHANGE_LENGTH]);
+    }
+
+    // gain is scratch space for the swap list, MAX_EXCHANGE_LENGTH entries long
+    int staticExchangeEvaluation(final int from,
+                                 final int to,
+                                 final PieceType movedType,
+                                 final PieceType capturedType,
+                                 final int[] gain) {
+        final long bishopsAndQueens = this.pieces[index(Alliance.WHITE, PieceType.BISHOP)]
+                | this.pieces[index(Alliance.BLACK, PieceType.BISHOP)]
+                | this.pieces[index(Alliance.WHITE, PieceType.QUEEN)]
+                | this.pieces[index(Alliance.BLACK, PieceType.QUEEN)];
+        final long rooksAndQueens = this.pieces[index(Alliance.WHITE, PieceType.ROOK)]
+                | this.pieces[index(Alliance.BLACK, PieceType.ROOK)]
+                | this.pieces[index(Alliance.WHITE, PieceType.QUEEN)]
+                | this.pieces[index(Alliance.BLACK, PieceType.QUEEN)];
+
+        long occupied = this.occupied;
+        long attackers = calculateAttackers(to, Alliance.WHITE, occupied) | calculateAttackers(to, Alliance.BLACK, occupied);
+        Alliance side = (getOccupancy(Alliance.WHITE) & squareBit(from)) != 0 ? Alliance.WHITE : Alliance.BLACK;
+        long attackerBit = squareBit(from);
+        PieceType attackerType = movedType;
+        int depth = 0;
+        gain[0] = capturedType == null ? 0 : capturedType.getPieceValue();
+        do {
+            depth++;
+            // what the side to capture next stands to win if it takes the piece that just captured
+            gain[depth] = attackerType.getPieceValue() - gain[depth - 1];
+            occupied ^= attackerBit;
+            attackers ^= attackerBit;
+            attackers |= ((rookAttacks(to, occupied) & rooksAndQueens)
+                    | (bishopAttacks(to, occupied) & bishopsAndQueens)) & occupied;
+            side = side.opposite();
+
+            attackerBit = EMPTY;
+            final long sideAttackers = attackers & getOccupancy(side);
+            for (final PieceType pieceType : PIECE_TYPES) {
+                final long candidates = sideAttackers & getPieces(side, pieceType);
+                if (candidates != EMPTY) {
+                    if (pieceType.isKing() && (attackers & getOccupancy(side.opposite())) != EMPTY) {
+                        break;
+                    }
+                    attackerBit = candidates & -candidates;
+                    attackerType = pieceType;
+                    break;
+                }
+            }
+        } while (attackerBit != EMPTY && depth < MAX_EXCHANGE_LENGTH - 1);
+
+        // from the last capture back, each side either captures or stops, whichever is better for it
+        while (--depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    private static int index(final Alliance alliance, final PieceType pieceType) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+}
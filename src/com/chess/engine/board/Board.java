@@ -5,6 +5,8 @@ import com.chess.engine.player.BlackPlayer;
 import com.chess.engine.player.Player;
 import com.chess.engine.player.WhitePlayer;
 import com.chess.engine.pieces.*;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
@@ -12,33 +14,100 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+// Immutable position. A board derived from another through Builder(Board) copies the previous board's
+// tile array and bitboards and rewrites only the tiles the move changed; the piece array is cloned on
+// the builder's first write, and only the piece lists of the sides the move touched are rebuilt. A move
+// still copies the whole board, what it saves is creating tiles and placing every piece again.
 public class Board {
-    private final List<Tile> gameBoard;
+    private final Tile[] gameBoard;
+    // piece on every tile, shared copy-on-write with builders derived from this board
+    private final Piece[] boardConfig;
+    private final BitBoard bitBoard;
 
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
 
-    private final WhitePlayer whitePlayer;
-    private final BlackPlayer blackPlayer;
-    private final Player currentPlayer;
+    // everything about moves is worked out on first use and then memoized: most boards built
+    // during a search are only ever evaluated or checked for legality, never asked for their moves.
+    // memoized suppliers are thread-safe, boards can be shared
+    private final Supplier<Collection<Move>> whiteStandardLegalMoves;
+    private final Supplier<Collection<Move>> blackStandardLegalMoves;
+    private final Supplier<WhitePlayer> whitePlayer;
+    private final Supplier<BlackPlayer> blackPlayer;
+    private final Alliance nextMoveMaker;
 
     private final Pawn enPassantPawn;
+    // castle rights as the bits of BoardUtils, and the zobrist key of the whole position
+    private final int castleRights;
+    private final long zobristKey;
+    // half moves since the last capture or pawn move, for the fifty-move rule
+    private final int halfMoveClock;
 
     private Board(Builder builder) {
-        this.gameBoard = createGameBoard(builder);
-        // derived from gameBoard which is a list of Tiles
-        // each Tile has coordinate
-        // and in the case of OccupiedTile, it has a Piece field
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
-        this.enPassantPawn = builder.enPassantPawn;
-
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
+        this.boardConfig = builder.shareBoardConfig();
+        if (builder.previousBoard == null) {
+            this.gameBoard = createGameBoard(this.boardConfig);
+            this.bitBoard = BitBoard.createBitBoard(Arrays.asList(this.boardConfig));
+            // derived from gameBoard which is a list of Tiles
+            // each Tile has coordinate
+            // and in the case of OccupiedTile, it has a Piece field
+            this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
+            this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
+            this.enPassantPawn = builder.enPassantPawn;
+            this.castleRights = calculateCastleRights(this.boardConfig);
+            this.zobristKey = Zobrist.calculateKey(this.boardConfig, builder.nextMoveMaker,
+                    this.castleRights, getEnPassantTile());
+        } else {
+            // only the tiles touched by the move differ from the previous board
+            final Board previousBoard = builder.previousBoard;
+            this.gameBoard = previousBoard.gameBoard.clone();
+            this.bitBoard = previousBoard.bitBoard.copy();
+            final List<Piece> removedPieces = new ArrayList<>(2);
+            final List<Piece> addedPieces = new ArrayList<>(2);
+            // the key is carried over and only the differences are xored in
+            long key = previousBoard.zobristKey;
+            int castleRights = previousBoard.castleRights;
+            long changedTiles = builder.changedTiles;
+            while (changedTiles != 0) {
+                final int tileCoordinate = Long.numberOfTrailingZeros(changedTiles);
+                changedTiles &= changedTiles - 1;
+                final Piece previousPiece = previousBoard.boardConfig[tileCoordinate];
+                final Piece piece = this.boardConfig[tileCoordinate];
+                if (previousPiece == piece) {
+                    continue;
+                }
+                castleRights &= BoardUtils.CASTLE_RIGHTS_MASK[tileCoordinate];
+                if (previousPiece != null) {
+                    this.bitBoard.removePiece(previousPiece.getPieceAlliance(), previousPiece.getPieceType(), tileCoordinate);
+                    removedPieces.add(previousPiece);
+                    key ^= Zobrist.pieceKey(previousPiece.getPieceAlliance(), previousPiece.getPieceType(), tileCoordinate);
+                }
+                if (piece != null) {
+                    this.bitBoard.addPiece(piece.getPieceAlliance(), piece.getPieceType(), tileCoordinate);
+                    addedPieces.add(piece);
+                    key ^= Zobrist.pieceKey(piece.getPieceAlliance(), piece.getPieceType(), tileCoordinate);
+                }
+                this.gameBoard[tileCoordinate] = Tile.createTile(tileCoordinate, piece);
+            }
+            this.whitePieces = carryOverActivePieces(previousBoard.whitePieces, removedPieces, addedPieces, Alliance.WHITE);
+            this.blackPieces = carryOverActivePieces(previousBoard.blackPieces, removedPieces, addedPieces, Alliance.BLACK);
+            this.enPassantPawn = builder.enPassantPawn;
+            this.castleRights = castleRights;
+            this.zobristKey = key
+                    ^ Zobrist.castleKey(previousBoard.castleRights) ^ Zobrist.castleKey(castleRights)
+                    ^ Zobrist.enPassantKey(previousBoard.getEnPassantTile()) ^ Zobrist.enPassantKey(getEnPassantTile())
+                    ^ Zobrist.sideKey(previousBoard.nextMoveMaker) ^ Zobrist.sideKey(builder.nextMoveMaker);
+            assert this.castleRights == calculateCastleRights(this.boardConfig) : "castle rights out of sync";
+            assert this.zobristKey == Zobrist.calculateKey(this.boardConfig, builder.nextMoveMaker,
+                    this.castleRights, getEnPassantTile()) : "incremental zobrist key out of sync";
+        }
 
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
+        this.nextMoveMaker = builder.nextMoveMaker;
+        this.halfMoveClock = builder.halfMoveClock;
+        this.whiteStandardLegalMoves = Suppliers.memoize(() -> calculateLegalMoves(this.whitePieces));
+        this.blackStandardLegalMoves = Suppliers.memoize(() -> calculateLegalMoves(this.blackPieces));
+        this.whitePlayer = Suppliers.memoize(() -> new WhitePlayer(this, this.whiteStandardLegalMoves));
+        this.blackPlayer = Suppliers.memoize(() -> new BlackPlayer(this, this.blackStandardLegalMoves));
     }
 
     public Collection<Piece> getBlackPieces() {
@@ -52,23 +121,78 @@ public class Board {
                 this.blackPieces.stream()).collect(Collectors.toList());
     }
 
+    public BitBoard getBitBoard() {
+        return this.bitBoard;
+    }
+
     public Pawn getEnPassantPawn() {
         return enPassantPawn;
     }
 
+    // the tile a pawn capturing en passant lands on, or BoardUtils.NO_TILE
+    public int getEnPassantTile() {
+        return this.enPassantPawn == null
+                ? BoardUtils.NO_TILE
+                : this.enPassantPawn.getPiecePosition() - this.enPassantPawn.getPieceAlliance().getDirection() * 8;
+    }
+
+    public int getCastleRights() {
+        return this.castleRights;
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    public int getHalfMoveClock() {
+        return this.halfMoveClock;
+    }
+
     public Player whitePlayer() {
-        return this.whitePlayer;
+        return this.whitePlayer.get();
     }
     public Player blackPlayer() {
-        return this.blackPlayer;
+        return this.blackPlayer.get();
+    }
+    public Player currentPlayer() {
+        return this.nextMoveMaker.choosePlayer(this.whitePlayer.get(), this.blackPlayer.get());
+    }
+
+    // positions are equal when the same pieces stand on the same tiles with the same side to move,
+    // castle rights and en passant tile; the key settles almost every comparison on its own
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) return true;
+        if (!(other instanceof Board)) return false;
+        final Board otherBoard = (Board) other;
+        if (this.zobristKey != otherBoard.zobristKey
+                || this.castleRights != otherBoard.castleRights
+                || getEnPassantTile() != otherBoard.getEnPassantTile()
+                || this.nextMoveMaker != otherBoard.nextMoveMaker) {
+            return false;
+        }
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = this.boardConfig[i];
+            final Piece otherPiece = otherBoard.boardConfig[i];
+            if (piece != otherPiece && (piece == null || otherPiece == null
+                    || piece.getPieceType() != otherPiece.getPieceType()
+                    || piece.getPieceAlliance() != otherPiece.getPieceAlliance())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (this.zobristKey ^ (this.zobristKey >>> 32));
     }
-    public Player currentPlayer() { return this.currentPlayer; }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
         for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            final String tileText = this.gameBoard.get(i).toString(); // tile.toString()
+            final String tileText = this.gameBoard[i].toString(); // tile.toString()
             sb.append(String.format("%3s", tileText));
             if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
                 sb.append("\n");
@@ -88,7 +212,7 @@ public class Board {
     // static because it's independent of Board's internal state
     // private because it is only used in Board class
     // refer to https://softwareengineering.stackexchange.com/a/234426/357268
-    private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, final Alliance alliance) {
+    private static Collection<Piece> calculateActivePieces(final Tile[] gameBoard, final Alliance alliance) {
         final List<Piece> activePieces = new ArrayList<>();
         for (final Tile tile: gameBoard) {
             if (tile.isTileOccupied()) {
@@ -101,60 +225,112 @@ public class Board {
         return ImmutableList.copyOf(activePieces);
     }
 
+    // the previous pieces of one alliance with the pieces that left or entered the board swapped,
+    // a side the move did not touch keeps its list as is
+    private static Collection<Piece> carryOverActivePieces(final Collection<Piece> previousPieces,
+                                                           final List<Piece> removedPieces,
+                                                           final List<Piece> addedPieces,
+                                                           final Alliance alliance) {
+        final ImmutableList.Builder<Piece> activePieces = ImmutableList.builder();
+        boolean isChanged = false;
+        for (final Piece piece : addedPieces) {
+            if (piece.getPieceAlliance() == alliance) {
+                activePieces.add(piece);
+                isChanged = true;
+            }
+        }
+        for (final Piece piece : removedPieces) {
+            isChanged |= piece.getPieceAlliance() == alliance;
+        }
+        if (!isChanged) {
+            return previousPieces;
+        }
+        for (final Piece piece : previousPieces) {
+            if (!removedPieces.contains(piece)) {
+                activePieces.add(piece);
+            }
+        }
+        return activePieces.build();
+    }
+
+    // a castle right needs the king and that rook unmoved on their starting tiles, with the king still capable
+    // of castling to that side; see BoardUtils.CASTLE_RIGHTS_MASK for how moves take the rights away
+    private static int calculateCastleRights(final Piece[] boardConfig) {
+        int castleRights = 0;
+        if (isCastleCapable(boardConfig, Alliance.WHITE, 60, 63)) castleRights |= BoardUtils.WHITE_KING_SIDE_CASTLE;
+        if (isCastleCapable(boardConfig, Alliance.WHITE, 60, 56)) castleRights |= BoardUtils.WHITE_QUEEN_SIDE_CASTLE;
+        if (isCastleCapable(boardConfig, Alliance.BLACK, 4, 7)) castleRights |= BoardUtils.BLACK_KING_SIDE_CASTLE;
+        if (isCastleCapable(boardConfig, Alliance.BLACK, 4, 0)) castleRights |= BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        return castleRights;
+    }
+
+    private static boolean isCastleCapable(final Piece[] boardConfig, final Alliance alliance,
+                                           final int kingTile, final int rookTile) {
+        final Piece king = boardConfig[kingTile];
+        final Piece rook = boardConfig[rookTile];
+        if (!(king instanceof King) || king.getPieceAlliance() != alliance || !king.isFirstMove()) {
+            return false;
+        }
+        final boolean isKingSide = rookTile > kingTile;
+        return (isKingSide ? ((King) king).isKingSideCastleCapable() : ((King) king).isQueenSideCastleCapable())
+                && rook != null && rook.getPieceType() == Piece.PieceType.ROOK
+                && rook.getPieceAlliance() == alliance && rook.isFirstMove();
+    }
+
     public Tile getTile(final int tileCoordinate) {
-        return gameBoard.get(tileCoordinate);
+        return this.gameBoard[tileCoordinate];
     }
 
 
     // uses builder's mapping of coordinate to piece
-    // to create a list of Tiles
-    private static List<Tile> createGameBoard(final Builder builder) {
+    // to create the Tiles
+    private static Tile[] createGameBoard(final Piece[] boardConfig) {
         final Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
         for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            // if boardConfig map is null, Tile.createTile will create an empty tile
+            // if there is no piece on the tile, Tile.createTile will create an empty tile
             // else create an occupied tile
-            tiles[i] = Tile.createTile(i, builder.boardConfig.get(i));
+            tiles[i] = Tile.createTile(i, boardConfig[i]);
         }
 
-        return ImmutableList.copyOf(tiles);
+        return tiles;
     }
 
     public static Board createStandardBoard() {
         final Builder builder = new Builder();
         // Black Layout
-        builder.setPiece(new Rook(Alliance.BLACK, 0));
-        builder.setPiece(new Knight(Alliance.BLACK, 1));
-        builder.setPiece(new Bishop(Alliance.BLACK, 2));
-        builder.setPiece(new Queen(Alliance.BLACK, 3));
-        builder.setPiece(new King(Alliance.BLACK, 4, true, true));
-        builder.setPiece(new Bishop(Alliance.BLACK, 5));
-        builder.setPiece(new Knight(Alliance.BLACK, 6));
-        builder.setPiece(new Rook(Alliance.BLACK, 7));
-        builder.setPiece(new Pawn(Alliance.BLACK, 8));
-        builder.setPiece(new Pawn(Alliance.BLACK, 9));
-        builder.setPiece(new Pawn(Alliance.BLACK, 10));
-        builder.setPiece(new Pawn(Alliance.BLACK, 11));
-        builder.setPiece(new Pawn(Alliance.BLACK, 12));
-        builder.setPiece(new Pawn(Alliance.BLACK, 13));
-        builder.setPiece(new Pawn(Alliance.BLACK, 14));
-        builder.setPiece(new Pawn(Alliance.BLACK, 15));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 0));
+        builder.setPiece(Knight.createKnight(Alliance.BLACK, 1));
+        builder.setPiece(Bishop.createBishop(Alliance.BLACK, 2));
+        builder.setPiece(Queen.createQueen(Alliance.BLACK, 3));
+        builder.setPiece(King.createKing(Alliance.BLACK, 4, true, true));
+        builder.setPiece(Bishop.createBishop(Alliance.BLACK, 5));
+        builder.setPiece(Knight.createKnight(Alliance.BLACK, 6));
+        builder.setPiece(Rook.createRook(Alliance.BLACK, 7));
+        builder.setPiece(Pawn.createPawn(Alliance.BLACK, 8));
+        builder.setPiece(Pawn.createPawn(Alliance.BLACK, 9));
+        builder.setPiece(Pawn.createPawn(Alliance.BLACK, 10));
+        builder.setPiece(Pawn.createPawn(Alliance.BLACK, 11));
+        builder.setPiece(Pawn.createPawn(Alliance.BLACK, 12));
+        builder.setPiece(Pawn.createPawn(Alliance.BLACK, 13));
+        builder.setPiece(Pawn.createPawn(Alliance.BLACK, 14));
+        builder.setPiece(Pawn.createPawn(Alliance.BLACK, 15));
         // White Layout
-        builder.setPiece(new Pawn(Alliance.WHITE, 48));
-        builder.setPiece(new Pawn(Alliance.WHITE, 49));
-        builder.setPiece(new Pawn(Alliance.WHITE, 50));
-        builder.setPiece(new Pawn(Alliance.WHITE, 51));
-        builder.setPiece(new Pawn(Alliance.WHITE, 52));
-        builder.setPiece(new Pawn(Alliance.WHITE, 53));
-        builder.setPiece(new Pawn(Alliance.WHITE, 54));
-        builder.setPiece(new Pawn(Alliance.WHITE, 55));
-        builder.setPiece(new Rook(Alliance.WHITE, 56));
-        builder.setPiece(new Knight(Alliance.WHITE, 57));
-        builder.setPiece(new Bishop(Alliance.WHITE, 58));
-        builder.setPiece(new Queen(Alliance.WHITE, 59));
-        builder.setPiece(new King(Alliance.WHITE, 60, true, true));
-        builder.setPiece(new Bishop(Alliance.WHITE, 61));
-        builder.setPiece(new Knight(Alliance.WHITE, 62));
-        builder.setPiece(new Rook(Alliance.WHITE, 63));
+        builder.setPiece(Pawn.createPawn(Alliance.WHITE, 48));
+        builder.setPiece(Pawn.createPawn(Alliance.WHITE, 49));
+        builder.setPiece(Pawn.createPawn(Alliance.WHITE, 50));
+        builder.setPiece(Pawn.createPawn(Alliance.WHITE, 51));
+        builder.setPiece(Pawn.createPawn(Alliance.WHITE, 52));
+        builder.setPiece(Pawn.createPawn(Alliance.WHITE, 53));
+        builder.setPiece(Pawn.createPawn(Alliance.WHITE, 54));
+        builder.setPiece(Pawn.createPawn(Alliance.WHITE, 55));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 56));
+        builder.setPiece(Knight.createKnight(Alliance.WHITE, 57));
+        builder.setPiece(Bishop.createBishop(Alliance.WHITE, 58));
+        builder.setPiece(Queen.createQueen(Alliance.WHITE, 59));
+        builder.setPiece(King.createKing(Alliance.WHITE, 60, true, true));
+        builder.setPiece(Bishop.createBishop(Alliance.WHITE, 61));
+        builder.setPiece(Knight.createKnight(Alliance.WHITE, 62));
+        builder.setPiece(Rook.createRook(Alliance.WHITE, 63));
 
         // white to move
         builder.setNextMoveMaker(Alliance.WHITE);
@@ -164,20 +340,42 @@ public class Board {
 
     public Iterable<Move> getAllLegalMoves() {
         return Iterables.unmodifiableIterable(
-                Iterables.concat(this.whitePlayer.getLegalMoves(), this.blackPlayer.getLegalMoves()));
+                Iterables.concat(whitePlayer().getLegalMoves(), blackPlayer().getLegalMoves()));
     }
 
     public static class Builder {
-        Map<Integer, Piece> boardConfig;
+        Piece[] boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        int halfMoveClock;
+        // set when the builder starts from an existing board, together with the tiles changed since
+        final Board previousBoard;
+        long changedTiles;
+        // the config array belongs to a board and must be copied before it is written to
+        private boolean isBoardConfigShared;
 
         public Builder() {
-            this.boardConfig = new HashMap<>();
+            this.boardConfig = new Piece[BoardUtils.NUM_TILES];
+            this.previousBoard = null;
+        }
+
+        // starts from the pieces of the given board, next move maker, en passant pawn and half move clock
+        // are not carried over
+        public Builder(final Board board) {
+            this.boardConfig = board.boardConfig;
+            this.isBoardConfigShared = true;
+            this.previousBoard = board;
         }
 
         public Builder setPiece(final Piece piece) {
-            this.boardConfig.put(piece.getPiecePosition(), piece);
+            writableBoardConfig()[piece.getPiecePosition()] = piece;
+            this.changedTiles |= BitBoardUtils.squareBit(piece.getPiecePosition());
+            return this;
+        }
+
+        public Builder removePiece(final int tileCoordinate) {
+            writableBoardConfig()[tileCoordinate] = null;
+            this.changedTiles |= BitBoardUtils.squareBit(tileCoordinate);
             return this;
         }
 
@@ -192,8 +390,27 @@ public class Board {
             return this;
         }
 
+        public Builder setHalfMoveClock(final int halfMoveClock) {
+            this.halfMoveClock = halfMoveClock;
+            return this;
+        }
+
         public Board build() {
             return new Board(this);
         }
+
+        private Piece[] writableBoardConfig() {
+            if (this.isBoardConfigShared) {
+                this.boardConfig = this.boardConfig.clone();
+                this.isBoardConfigShared = false;
+            }
+            return this.boardConfig;
+        }
+
+        // hands the config to a new board, later writes through this builder go to a copy
+        private Piece[] shareBoardConfig() {
+            this.isBoardConfigShared = true;
+            return this.boardConfig;
+        }
     }
 }
@@ -8,6 +8,8 @@ public class BoardUtils {
 
     public static final int NUM_TILES = 64;
     public static final int NUM_TILES_PER_ROW = 8;
+    // stands in for a tile coordinate when there is none, eg no en passant tile
+    public static final int NO_TILE = -1;
 
     public static boolean[] FIRST_COLUMN = initCol(0);
     public static boolean[] SECOND_COLUMN = initCol(1);
@@ -24,6 +26,28 @@ public class BoardUtils {
     public static final boolean[] SECOND_RANK = initRow(48);
     public static final boolean[] FIRST_RANK = initRow(56);
 
+    // destination tiles of every tile, built once so that move generation never has to guard
+    // against a step wrapping around the edge of the board
+    public static final int[][] KNIGHT_TARGETS = initJumpTargets(new int[]{-17, -15, -10, -6, 6, 10, 15, 17});
+    public static final int[][] KING_TARGETS = initJumpTargets(new int[]{-9, -8, -7, -1, 1, 7, 8, 9});
+    // indexed by Alliance#ordinal, the diagonal tiles a pawn of that alliance captures on
+    public static final int[][][] PAWN_ATTACK_TARGETS = {
+            initJumpTargets(new int[]{-7, -9}), initJumpTargets(new int[]{7, 9})
+    };
+
+    // RAYS[tile][i] lists the tiles walked from tile in direction RAY_DIRECTIONS[i], nearest first
+    public static final int[] RAY_DIRECTIONS = {-9, -8, -7, -1, 1, 7, 8, 9};
+    public static final int[][][] RAYS = initRays();
+
+    // castle rights, one bit per king and side
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+    // castle rights that survive a move touching the tile, a king or rook leaving or being captured
+    // on its starting tile loses them for good
+    public static final int[] CASTLE_RIGHTS_MASK = initCastleRightsMask();
+
     // can only be accessed within this class,
     // used in public static fns getCoordinateFromPGN and getPGNFromCoordinate
     private static final List<String> ALGEBRAIC_NOTATION = initializeAlgebraicNotation();
@@ -58,6 +82,66 @@ public class BoardUtils {
         return row;
     }
 
+    private static int[] initCastleRightsMask() {
+        final int[] mask = new int[NUM_TILES];
+        Arrays.fill(mask, WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE | BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        mask[60] &= ~(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE);
+        mask[63] &= ~WHITE_KING_SIDE_CASTLE;
+        mask[56] &= ~WHITE_QUEEN_SIDE_CASTLE;
+        mask[4] &= ~(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        mask[7] &= ~BLACK_KING_SIDE_CASTLE;
+        mask[0] &= ~BLACK_QUEEN_SIDE_CASTLE;
+        return mask;
+    }
+
+    // single step from a tile, or -1 if it leaves the board or wraps around to the other side
+    private static int step(final int coordinate, final int offset) {
+        final int destination = coordinate + offset;
+        if (!isValidTileCoordinate(destination)) {
+            return -1;
+        }
+        final int columnDistance = Math.abs(destination % NUM_TILES_PER_ROW - coordinate % NUM_TILES_PER_ROW);
+        return columnDistance <= 2 ? destination : -1;
+    }
+
+    private static int[][] initJumpTargets(final int[] offsets) {
+        final int[][] targets = new int[NUM_TILES][];
+        for (int coordinate = 0; coordinate < NUM_TILES; coordinate++) {
+            final List<Integer> destinations = new ArrayList<>();
+            for (final int offset : offsets) {
+                final int destination = step(coordinate, offset);
+                if (destination != -1) {
+                    destinations.add(destination);
+                }
+            }
+            targets[coordinate] = toIntArray(destinations);
+        }
+        return targets;
+    }
+
+    private static int[][][] initRays() {
+        final int[][][] rays = new int[NUM_TILES][RAY_DIRECTIONS.length][];
+        for (int coordinate = 0; coordinate < NUM_TILES; coordinate++) {
+            for (int i = 0; i < RAY_DIRECTIONS.length; i++) {
+                final List<Integer> ray = new ArrayList<>();
+                int current = coordinate;
+                while ((current = step(current, RAY_DIRECTIONS[i])) != -1) {
+                    ray.add(current);
+                }
+                rays[coordinate][i] = toIntArray(ray);
+            }
+        }
+        return rays;
+    }
+
+    private static int[] toIntArray(final List<Integer> values) {
+        final int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
     public static int getCoordinateFromPGN(final String notation) {
         return PGN_COORDINATE_MAP.get(notation);
     }
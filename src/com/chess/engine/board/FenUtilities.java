@@ -0,0 +1,89 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Bishop;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.pieces.Rook;
+
+// Builds boards from Forsyth-Edwards Notation, eg
+// "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -"
+// the half move clock and full move counter are optional, the full move counter is ignored
+public final class FenUtilities {
+
+    private FenUtilities() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    public static Board createGameFromFEN(final String fenString) {
+        final String[] fields = fenString.trim().split("\\s+");
+        if (fields.length < 2) {
+            throw new RuntimeException("Invalid FEN " + fenString);
+        }
+        final String castleField = fields.length > 2 ? fields[2] : "-";
+        final Board.Builder builder = new Board.Builder();
+
+        int tileCoordinate = 0;
+        for (final char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                tileCoordinate += c - '0';
+                continue;
+            }
+            builder.setPiece(createPiece(c, tileCoordinate, castleField));
+            tileCoordinate++;
+        }
+        if (tileCoordinate != BoardUtils.NUM_TILES) {
+            throw new RuntimeException("Invalid FEN " + fenString);
+        }
+
+        final Alliance nextMoveMaker = fields[1].equals("b") ? Alliance.BLACK : Alliance.WHITE;
+        builder.setNextMoveMaker(nextMoveMaker);
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            // the en passant field names the tile behind the pawn that just jumped
+            final int enPassantTile = BoardUtils.getCoordinateFromPGN(fields[3]);
+            final int pawnCoordinate = enPassantTile + nextMoveMaker.getOppositeDirection() * 8;
+            builder.setEnPassantPawn(Pawn.createPawn(nextMoveMaker.opposite(), pawnCoordinate, false));
+        }
+        if (fields.length > 4) {
+            builder.setHalfMoveClock(Integer.parseInt(fields[4]));
+        }
+        return builder.build();
+    }
+
+    private static Piece createPiece(final char c, final int tileCoordinate, final String castleField) {
+        final Alliance alliance = Character.isUpperCase(c) ? Alliance.WHITE : Alliance.BLACK;
+        final boolean isWhite = alliance.isWhite();
+        switch (Character.toLowerCase(c)) {
+            case 'p':
+                return Pawn.createPawn(alliance, tileCoordinate);
+            case 'n':
+                return Knight.createKnight(alliance, tileCoordinate);
+            case 'b':
+                return Bishop.createBishop(alliance, tileCoordinate);
+            case 'q':
+                return Queen.createQueen(alliance, tileCoordinate);
+            case 'r': {
+                // a rook still counts as unmoved only if it is the partner of a castle right
+                final boolean isFirstMove =
+                        (tileCoordinate == (isWhite ? 63 : 7) && castleField.indexOf(isWhite ? 'K' : 'k') >= 0)
+                        || (tileCoordinate == (isWhite ? 56 : 0) && castleField.indexOf(isWhite ? 'Q' : 'q') >= 0);
+                return Rook.createRook(alliance, tileCoordinate, isFirstMove);
+            }
+            case 'k': {
+                final boolean kingSideCastleCapable = castleField.indexOf(isWhite ? 'K' : 'k') >= 0;
+                final boolean queenSideCastleCapable = castleField.indexOf(isWhite ? 'Q' : 'q') >= 0;
+                return King.createKing(alliance, tileCoordinate,
+                        kingSideCastleCapable || queenSideCastleCapable, false,
+                        kingSideCastleCapable, queenSideCastleCapable);
+            }
+            default:
+                throw new RuntimeException("Invalid FEN piece " + c);
+        }
+    }
+}
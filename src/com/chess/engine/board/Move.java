@@ -61,20 +61,19 @@ public abstract class Move {
         return board;
     }
 
-    public Board execute() {
-        final Builder builder = new Builder();
-        // for every of player's active pieces, place it on the board
-        // except the piece that is currently being moved
-        for (final Piece p : this.board.currentPlayer().getActivePieces()) {
-            if (!this.pieceToBeMoved.equals(p)) {
-                builder.setPiece(p);
-            }
-        }
+    // the fifty-move rule counts the half moves since the last capture or pawn move
+    protected int nextHalfMoveClock() {
+        return this.pieceToBeMoved.getPieceType() == Piece.PieceType.PAWN || getAttackedPiece() != null
+                ? 0
+                : this.board.getHalfMoveClock() + 1;
+    }
 
-        // set all of opponent's pieces on the board
-        for (final Piece p : this.board.currentPlayer().getOpponent().getActivePieces()) {
-            builder.setPiece(p);
-        }
+    public Board execute() {
+        // start from the current board and only touch the tiles the move changes:
+        // the piece to be moved leaves its tile, and setting the moved piece on the
+        // destination replaces a captured piece
+        final Builder builder = new Builder(this.board);
+        builder.removePiece(this.pieceToBeMoved.getPiecePosition());
 
         // the piece to be moved will call its method on the Piece class
         // which takes in a move and returns a new Piece in the desired position
@@ -82,6 +81,7 @@ public abstract class Move {
         builder.setPiece(this.pieceToBeMoved.movePiece(this));
         // update next player to move
         builder.setNextMoveMaker((this.board.currentPlayer().getOpponent().getAlliance()));
+        builder.setHalfMoveClock(nextHalfMoveClock());
 
         return builder.build();
     }
@@ -196,22 +196,15 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            // the board with the pawn move
-            final Board pawnMovedBoard = this.decoratedMove.execute();
-            final Builder builder = new Builder();
-            for (final Piece piece : pawnMovedBoard.currentPlayer().getActivePieces()) {
-                if (!this.pawnToBePromoted.equals(piece)) {
-                    builder.setPiece(piece);
-                }
-            }
+            // built straight from the current board: an intermediate board with the pawn on its
+            // last rank would generate moves for a pawn that cannot move
+            final Builder builder = new Builder(this.board);
+            builder.removePiece(this.pawnToBePromoted.getPiecePosition());
 
-            for (final Piece piece : pawnMovedBoard.currentPlayer().getOpponent().getActivePieces()) {
-               builder.setPiece(piece);
-            }
-
-            // change pawn to queen
+            // change pawn to queen, a captured piece is replaced on the destination tile
             builder.setPiece(this.pawnToBePromoted.getPromotionPiece().movePiece(this));
-            builder.setNextMoveMaker(pawnMovedBoard.currentPlayer().getOpponent().getAlliance());
+            builder.setNextMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setHalfMoveClock(nextHalfMoveClock());
 
             return builder.build();
         }
@@ -255,21 +248,13 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            final Builder builder = new Builder();
-            for (final Piece p : this.board.currentPlayer().getActivePieces()) {
-                if (!this.pieceToBeMoved.equals(p)) {
-                    builder.setPiece(p);
-                }
-            }
-
-            for (final Piece p : this.board.currentPlayer().getOpponent().getActivePieces()) {
-                if (!p.equals(this.getAttackedPiece())) {
-                    builder.setPiece(p);
-                }
-            }
-
+            final Builder builder = new Builder(this.board);
+            builder.removePiece(this.pieceToBeMoved.getPiecePosition());
+            // the captured pawn is not on the destination tile
+            builder.removePiece(this.getAttackedPiece().getPiecePosition());
             builder.setPiece(this.pieceToBeMoved.movePiece(this));
             builder.setNextMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setHalfMoveClock(nextHalfMoveClock());
             return builder.build();
         }
     }
@@ -286,14 +271,13 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            final Builder builder = new Builder();
-            this.board.currentPlayer().getActivePieces().stream().filter(piece -> !this.pieceToBeMoved.equals(piece))
-                    .forEach(builder::setPiece);
-            this.board.currentPlayer().getOpponent().getActivePieces().forEach(builder::setPiece);
+            final Builder builder = new Builder(this.board);
+            builder.removePiece(this.pieceToBeMoved.getPiecePosition());
             final Pawn movedPawn = (Pawn) this.pieceToBeMoved.movePiece(this);
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn(movedPawn);
             builder.setNextMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setHalfMoveClock(nextHalfMoveClock());
             return builder.build();
         }
     }
@@ -323,18 +307,15 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            final Board.Builder builder = new Builder();
-            for (final Piece piece : this.board.getAllPieces()) {
-                // not king or rook
-                if (!this.pieceToBeMoved.equals(piece) && !this.rook.equals(piece)) {
-                    builder.setPiece(piece);
-                }
-            }
+            final Board.Builder builder = new Builder(this.board);
+            builder.removePiece(this.pieceToBeMoved.getPiecePosition());
+            builder.removePiece(this.castleRookStart);
             // king
             builder.setPiece(this.pieceToBeMoved.movePiece(this));
             // calling movePiece here doesn't work, we need to explicitly create a new Rook
-            builder.setPiece(new Rook(this.rook.getPieceAlliance(), this.castleRookDestination, false));
+            builder.setPiece(Rook.createRook(this.rook.getPieceAlliance(), this.castleRookDestination, false));
             builder.setNextMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setHalfMoveClock(nextHalfMoveClock());
             return builder.build();
             // returns new Board(builder);
         }
@@ -0,0 +1,180 @@
+package com.chess.engine.board;
+
+import com.chess.engine.board.Move.CapturingMove;
+import com.chess.engine.board.Move.KingsideCastleMove;
+import com.chess.engine.board.Move.NormalMove;
+import com.chess.engine.board.Move.PawnCapturingMove;
+import com.chess.engine.board.Move.PawnEnPassantMove;
+import com.chess.engine.board.Move.PawnJumpMove;
+import com.chess.engine.board.Move.PawnMove;
+import com.chess.engine.board.Move.PawnPromotionMove;
+import com.chess.engine.board.Move.QueensideCastleMove;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.Rook;
+
+// Moves packed into a single int for the search and move generation hot path.
+//
+//  bits  0-5   source tile
+//  bits  6-11  destination tile
+//  bits 12-15  flags: capture bit, promotion bit and two special bits
+//  bits 16-18  moved piece type, PieceType#ordinal + 1
+//  bits 19-21  captured piece type, PieceType#ordinal + 1, 0 when nothing is captured
+//
+// The low 16 bits identify a move within its position and are what gets stored in compact tables,
+// the piece types ride along so that the search never has to look at a board to order or score a move.
+public final class PackedMove {
+    public static final int NULL_MOVE = 0;
+
+    public static final int QUIET = 0;
+    public static final int PAWN_JUMP = 1;
+    public static final int KING_SIDE_CASTLE = 2;
+    public static final int QUEEN_SIDE_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    // promotion flags carry the promotion piece in the two special bits: knight, bishop, rook, queen
+    public static final int PROMOTION = 8;
+    public static final int QUEEN_PROMOTION = PROMOTION | 3;
+
+    private static final PieceType[] PROMOTION_TYPES = {
+            PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN
+    };
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private PackedMove() {
+        throw new RuntimeException("PackedMove cannot be instantiated");
+    }
+
+    public static int create(final int currCoordinate,
+                             final int destinationCoordinate,
+                             final int flags,
+                             final PieceType movedType,
+                             final PieceType capturedType) {
+        return currCoordinate
+                | (destinationCoordinate << 6)
+                | (flags << 12)
+                | ((movedType.ordinal() + 1) << 16)
+                | (capturedType == null ? 0 : (capturedType.ordinal() + 1) << 19);
+    }
+
+    /* Getters */
+    public static int getCurrCoordinate(final int move) {
+        return move & 0x3F;
+    }
+
+    public static int getDestinationCoordinate(final int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int getFlags(final int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static PieceType getMovedType(final int move) {
+        final int type = (move >>> 16) & 0x7;
+        return type == 0 ? null : PIECE_TYPES[type - 1];
+    }
+
+    public static PieceType getCapturedType(final int move) {
+        final int type = (move >>> 19) & 0x7;
+        return type == 0 ? null : PIECE_TYPES[type - 1];
+    }
+
+    public static PieceType getPromotionType(final int move) {
+        return isPromotion(move) ? PROMOTION_TYPES[getFlags(move) & 0x3] : null;
+    }
+
+    // the part of the move that identifies it within a position
+    public static int compact(final int move) {
+        return move & 0xFFFF;
+    }
+
+    public static boolean isCapture(final int move) {
+        return (getFlags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return (getFlags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isEnPassant(final int move) {
+        return getFlags(move) == EN_PASSANT;
+    }
+
+    public static boolean isPawnJump(final int move) {
+        return getFlags(move) == PAWN_JUMP;
+    }
+
+    public static boolean isCastle(final int move) {
+        final int flags = getFlags(move);
+        return flags == KING_SIDE_CASTLE || flags == QUEEN_SIDE_CASTLE;
+    }
+
+    // captures and promotions, everything else is quiet
+    public static boolean isTactical(final int move) {
+        return (getFlags(move) & (CAPTURE | PROMOTION)) != 0;
+    }
+
+    /* Conversion to and from the Move hierarchy */
+    public static int fromMove(final Move move) {
+        final Piece movedPiece = move.getPieceToBeMoved();
+        final Piece attackedPiece = move.getAttackedPiece();
+        int flags;
+        if (move instanceof KingsideCastleMove) {
+            flags = KING_SIDE_CASTLE;
+        } else if (move instanceof QueensideCastleMove) {
+            flags = QUEEN_SIDE_CASTLE;
+        } else if (move instanceof PawnEnPassantMove) {
+            flags = EN_PASSANT;
+        } else if (move instanceof PawnJumpMove) {
+            flags = PAWN_JUMP;
+        } else {
+            flags = move.isCapturingMove() ? CAPTURE : QUIET;
+            if (move instanceof PawnPromotionMove) {
+                flags |= QUEEN_PROMOTION;
+            }
+        }
+        return create(move.getCurrCoordinate(), move.getDestinationCoordinate(), flags,
+                movedPiece.getPieceType(), attackedPiece == null ? null : attackedPiece.getPieceType());
+    }
+
+    // rebuilds the Move the board itself would have generated, so that it compares equal to
+    // the matching entry of Player#getLegalMoves and can be executed or logged
+    public static Move toMove(final Board board, final int move) {
+        final int from = getCurrCoordinate(move);
+        final int to = getDestinationCoordinate(move);
+        final Piece movedPiece = board.getTile(from).getPiece();
+        switch (getFlags(move)) {
+            case KING_SIDE_CASTLE:
+                return new KingsideCastleMove(board, movedPiece, to,
+                        (Rook) board.getTile(from + 3).getPiece(), from + 3, from + 1);
+            case QUEEN_SIDE_CASTLE:
+                return new QueensideCastleMove(board, movedPiece, to,
+                        (Rook) board.getTile(from - 4).getPiece(), from - 4, from - 1);
+            case EN_PASSANT:
+                return new PawnEnPassantMove(board, movedPiece, to, board.getEnPassantPawn());
+            case PAWN_JUMP:
+                return new PawnJumpMove(board, movedPiece, to);
+            default:
+                break;
+        }
+        final Piece attackedPiece = isCapture(move) ? board.getTile(to).getPiece() : null;
+        if (movedPiece.getPieceType() == PieceType.PAWN) {
+            final Move pawnMove = attackedPiece != null
+                    ? new PawnCapturingMove(board, movedPiece, to, attackedPiece)
+                    : new PawnMove(board, movedPiece, to);
+            return isPromotion(move) ? new PawnPromotionMove(pawnMove) : pawnMove;
+        }
+        return attackedPiece != null
+                ? new CapturingMove(board, movedPiece, to, attackedPiece)
+                : new NormalMove(board, movedPiece, to);
+    }
+
+    // coordinate notation, eg e2e4 or e7e8q
+    public static String toString(final int move) {
+        final PieceType promotionType = getPromotionType(move);
+        return BoardUtils.getPGNFromCoordinate(getCurrCoordinate(move))
+                + BoardUtils.getPGNFromCoordinate(getDestinationCoordinate(move))
+                + (promotionType == null ? "" : promotionType.toString().toLowerCase());
+    }
+}
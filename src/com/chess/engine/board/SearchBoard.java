@@ -0,0 +1,672 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.chess.engine.board.BitBoardUtils.*;
+import static com.chess.engine.board.BoardUtils.*;
+import static com.chess.engine.board.PackedMove.*;
+
+// Mutable board used by the search. Moves are made and unmade in place and everything needed
+// to take a move back (the packed move with its captured piece, castle rights, en passant tile, half move clock)
+// lives on an undo stack, so walking the tree allocates nothing. The immutable Board remains the public model for the GUI.
+// The keys on the undo stack, together with the keys of the game before the search started, are also what
+// repetitions are found with.
+public final class SearchBoard {
+    // no position has more pseudo-legal moves than this
+    public static final int MAX_MOVES = 256;
+
+    private static final int INITIAL_STACK_SIZE = 128;
+    private static final long[] NO_HISTORY = new long[0];
+    // a hundred half moves without a capture or pawn move are fifty moves each
+    private static final int FIFTY_MOVE_RULE_PLIES = 100;
+    // the tiles pawns promote on, a8-h8 and a1-h1
+    private static final long WHITE_PROMOTION_RANK = 0xFFL;
+    private static final long BLACK_PROMOTION_RANK = 0xFFL << 56;
+
+    private final BitBoard bitBoard;
+    private final PieceType[] pieceTypes;
+    private final Alliance[] pieceAlliances;
+    private Alliance sideToMove;
+    private int castleRights;
+    private int enPassantTile;
+    private long zobristKey;
+    private int halfMoveClock;
+    // zobrist keys of the positions of the game before this one, oldest first
+    private final long[] gameHistory;
+
+    // undo stack
+    private int ply;
+    private int[] undoMoves;
+    private int[] undoCastleRights;
+    private int[] undoEnPassantTiles;
+    private long[] undoZobristKeys;
+    private int[] undoHalfMoveClocks;
+
+    // generation target for countMoves and hasLegalMove
+    private final int[] scratchMoves;
+    // swap list of staticExchangeEvaluation
+    private final int[] exchangeGains;
+
+    public SearchBoard(final Board board) {
+        this(board, NO_HISTORY);
+    }
+
+    // gameHistory as made by historyKeys, so that repetitions of the game's earlier positions are found
+    public SearchBoard(final Board board, final long[] gameHistory) {
+        this.bitBoard = new BitBoard();
+        this.pieceTypes = new PieceType[BoardUtils.NUM_TILES];
+        this.pieceAlliances = new Alliance[BoardUtils.NUM_TILES];
+        for (final Piece piece : board.getAllPieces()) {
+            putPiece(piece.getPieceAlliance(), piece.getPieceType(), piece.getPiecePosition());
+        }
+        this.sideToMove = board.currentPlayer().getAlliance();
+        this.castleRights = board.getCastleRights();
+        this.enPassantTile = board.getEnPassantTile();
+        this.zobristKey = board.getZobristKey();
+        this.halfMoveClock = board.getHalfMoveClock();
+        this.gameHistory = gameHistory;
+        this.ply = 0;
+        this.undoMoves = new int[INITIAL_STACK_SIZE];
+        this.undoCastleRights = new int[INITIAL_STACK_SIZE];
+        this.undoEnPassantTiles = new int[INITIAL_STACK_SIZE];
+        this.undoZobristKeys = new long[INITIAL_STACK_SIZE];
+        this.undoHalfMoveClocks = new int[INITIAL_STACK_SIZE];
+        this.scratchMoves = new int[MAX_MOVES];
+        this.exchangeGains = new int[BitBoard.MAX_EXCHANGE_LENGTH];
+    }
+
+    // an independent copy at the same ply, with the moves that led there, for another search thread
+    public SearchBoard(final SearchBoard searchBoard) {
+        this.bitBoard = searchBoard.bitBoard.copy();
+        this.pieceTypes = searchBoard.pieceTypes.clone();
+        this.pieceAlliances = searchBoard.pieceAlliances.clone();
+        this.sideToMove = searchBoard.sideToMove;
+        this.castleRights = searchBoard.castleRights;
+        this.enPassantTile = searchBoard.enPassantTile;
+        this.zobristKey = searchBoard.zobristKey;
+        this.halfMoveClock = searchBoard.halfMoveClock;
+        this.gameHistory = searchBoard.gameHistory;
+        this.ply = searchBoard.ply;
+        this.undoMoves = searchBoard.undoMoves.clone();
+        this.undoCastleRights = searchBoard.undoCastleRights.clone();
+        this.undoEnPassantTiles = searchBoard.undoEnPassantTiles.clone();
+        this.undoZobristKeys = searchBoard.undoZobristKeys.clone();
+        this.undoHalfMoveClocks = searchBoard.undoHalfMoveClocks.clone();
+        this.scratchMoves = new int[MAX_MOVES];
+        this.exchangeGains = new int[BitBoard.MAX_EXCHANGE_LENGTH];
+    }
+
+    // the keys of the positions the moves were played from, in the order of the game's MoveLog
+    public static long[] historyKeys(final List<Move> moves) {
+        final long[] keys = new long[moves.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = moves.get(i).getBoard().getZobristKey();
+        }
+        return keys;
+    }
+
+    /* Getters */
+    public Alliance getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public BitBoard getBitBoard() {
+        return this.bitBoard;
+    }
+
+    public PieceType getPieceType(final int tileCoordinate) {
+        return this.pieceTypes[tileCoordinate];
+    }
+
+    public Alliance getPieceAlliance(final int tileCoordinate) {
+        return this.pieceAlliances[tileCoordinate];
+    }
+
+    public int getCastleRights() {
+        return this.castleRights;
+    }
+
+    public int getEnPassantTile() {
+        return this.enPassantTile;
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    public int getPly() {
+        return this.ply;
+    }
+
+    public int getHalfMoveClock() {
+        return this.halfMoveClock;
+    }
+
+    /* Make and unmake */
+    // moves are packed as described in PackedMove
+    public void makeMove(final int move) {
+        final int from = getCurrCoordinate(move);
+        final int to = getDestinationCoordinate(move);
+        final int flags = getFlags(move);
+        final Alliance mover = this.pieceAlliances[from];
+        final PieceType movedType = this.pieceTypes[from];
+
+        if (this.ply == this.undoMoves.length) {
+            growUndoStack();
+        }
+        this.undoMoves[this.ply] = move;
+        this.undoCastleRights[this.ply] = this.castleRights;
+        this.undoEnPassantTiles[this.ply] = this.enPassantTile;
+        this.undoZobristKeys[this.ply] = this.zobristKey;
+        this.undoHalfMoveClocks[this.ply] = this.halfMoveClock;
+        this.ply++;
+
+        this.halfMoveClock = (flags & CAPTURE) != 0 || movedType == PieceType.PAWN ? 0 : this.halfMoveClock + 1;
+        long key = this.zobristKey;
+        if ((flags & CAPTURE) != 0) {
+            final int capturedTile = flags == EN_PASSANT ? to - mover.getDirection() * 8 : to;
+            key ^= Zobrist.pieceKey(this.pieceAlliances[capturedTile], this.pieceTypes[capturedTile], capturedTile);
+            clearPiece(capturedTile);
+        }
+        final PieceType placedType = (flags & PROMOTION) != 0 ? getPromotionType(move) : movedType;
+        key ^= Zobrist.pieceKey(mover, movedType, from) ^ Zobrist.pieceKey(mover, placedType, to);
+        clearPiece(from);
+        putPiece(mover, placedType, to);
+        if (flags == KING_SIDE_CASTLE || flags == QUEEN_SIDE_CASTLE) {
+            key ^= moveCastleRook(from, to, false);
+        }
+
+        key ^= Zobrist.castleKey(this.castleRights) ^ Zobrist.enPassantKey(this.enPassantTile);
+        this.castleRights &= CASTLE_RIGHTS_MASK[from] & CASTLE_RIGHTS_MASK[to];
+        this.enPassantTile = flags == PAWN_JUMP ? (from + to) / 2 : NO_TILE;
+        this.sideToMove = mover.opposite();
+        key ^= Zobrist.castleKey(this.castleRights) ^ Zobrist.enPassantKey(this.enPassantTile)
+                ^ Zobrist.sideKey(mover) ^ Zobrist.sideKey(this.sideToMove);
+        this.zobristKey = key;
+        assert key == calculateZobristKey() : "incremental zobrist key out of sync after " + PackedMove.toString(move);
+    }
+
+    public void unmakeMove() {
+        this.ply--;
+        final int move = this.undoMoves[this.ply];
+        final int from = getCurrCoordinate(move);
+        final int to = getDestinationCoordinate(move);
+        final int flags = getFlags(move);
+        final Alliance mover = this.pieceAlliances[to];
+
+        clearPiece(to);
+        putPiece(mover, getMovedType(move), from);
+        if (flags == KING_SIDE_CASTLE || flags == QUEEN_SIDE_CASTLE) {
+            moveCastleRook(from, to, true);
+        }
+        if ((flags & CAPTURE) != 0) {
+            final int capturedTile = flags == EN_PASSANT ? to - mover.getDirection() * 8 : to;
+            putPiece(mover.opposite(), getCapturedType(move), capturedTile);
+        }
+
+        this.castleRights = this.undoCastleRights[this.ply];
+        this.enPassantTile = this.undoEnPassantTiles[this.ply];
+        this.zobristKey = this.undoZobristKeys[this.ply];
+        this.halfMoveClock = this.undoHalfMoveClocks[this.ply];
+        this.sideToMove = mover;
+    }
+
+    // passes the turn: only the side to move and the en passant tile change. Used by the search to
+    // see whether a position is so good that even moving twice in a row can't save the opponent
+    public void makeNullMove() {
+        assert !isInCheck(this.sideToMove) : "null move while in check";
+        if (this.ply == this.undoMoves.length) {
+            growUndoStack();
+        }
+        this.undoMoves[this.ply] = PackedMove.NULL_MOVE;
+        this.undoCastleRights[this.ply] = this.castleRights;
+        this.undoEnPassantTiles[this.ply] = this.enPassantTile;
+        this.undoZobristKeys[this.ply] = this.zobristKey;
+        this.undoHalfMoveClocks[this.ply] = this.halfMoveClock;
+        this.ply++;
+
+        this.halfMoveClock++;
+        final Alliance mover = this.sideToMove;
+        this.zobristKey ^= Zobrist.enPassantKey(this.enPassantTile)
+                ^ Zobrist.sideKey(mover) ^ Zobrist.sideKey(mover.opposite());
+        this.enPassantTile = NO_TILE;
+        this.sideToMove = mover.opposite();
+        assert this.zobristKey == calculateZobristKey() : "incremental zobrist key out of sync after null move";
+    }
+
+    public void unmakeNullMove() {
+        this.ply--;
+        this.enPassantTile = this.undoEnPassantTiles[this.ply];
+        this.zobristKey = this.undoZobristKeys[this.ply];
+        this.halfMoveClock = this.undoHalfMoveClocks[this.ply];
+        this.sideToMove = this.sideToMove.opposite();
+    }
+
+    // the move that led to this position, NULL_MOVE at the start or after a null move
+    public int getLastMove() {
+        return this.ply == 0 ? PackedMove.NULL_MOVE : this.undoMoves[this.ply - 1];
+    }
+
+    // whether the side has a piece other than its king and pawns, without one zugzwang is likely
+    public boolean hasNonPawnMaterial(final Alliance alliance) {
+        return (this.bitBoard.getPieces(alliance, PieceType.KNIGHT)
+                | this.bitBoard.getPieces(alliance, PieceType.BISHOP)
+                | this.bitBoard.getPieces(alliance, PieceType.ROOK)
+                | this.bitBoard.getPieces(alliance, PieceType.QUEEN)) != EMPTY;
+    }
+
+    /* Move generation */
+
+    // pseudo-legal moves for the side to move, packed as in PackedMove and written into moves
+    // from index start; returns the new end index so that one buffer can hold every ply's moves
+    public int generateMoves(final int[] moves, final int start) {
+        return generateMoves(this.sideToMove, moves, start);
+    }
+
+    // legal moves only: pseudo-legal moves filtered in place against the pins and checks of the position,
+    // in check only the evasions are generated in the first place
+    public int generateLegalMoves(final int[] moves, final int start) {
+        final Alliance alliance = this.sideToMove;
+        final long checkers = this.bitBoard.calculateCheckers(alliance);
+        final int end = checkers == EMPTY
+                ? generateMoves(alliance, moves, start)
+                : generateEvasionCandidates(alliance, checkers, moves, start);
+        return filterLegalMoves(alliance, checkers, moves, start, end);
+    }
+
+    // legal captures and promotions, the moves that settle a position before it is evaluated;
+    // in check every evasion, as standing still is not an option
+    public int generateCaptures(final int[] moves, final int start) {
+        final Alliance alliance = this.sideToMove;
+        final long checkers = this.bitBoard.calculateCheckers(alliance);
+        if (checkers != EMPTY) {
+            return filterLegalMoves(alliance, checkers, moves, start,
+                    generateEvasionCandidates(alliance, checkers, moves, start));
+        }
+        final long enemies = this.bitBoard.getOccupancy(alliance.opposite());
+        final long promotionRank = alliance.isWhite() ? WHITE_PROMOTION_RANK : BLACK_PROMOTION_RANK;
+        final int end = generatePieceMoves(alliance, enemies, enemies, moves,
+                generatePawnMoves(alliance, enemies | promotionRank, moves, start));
+        return filterLegalMoves(alliance, checkers, moves, start, end);
+    }
+
+    // legal moves that neither capture nor promote, for a side that is not in check; together with
+    // generateCaptures every legal move, so a search can put off generating them until the captures
+    // have failed to cut the node off
+    public int generateQuiets(final int[] moves, final int start) {
+        final Alliance alliance = this.sideToMove;
+        final long empty = ~this.bitBoard.getOccupied();
+        final long promotionRank = alliance.isWhite() ? WHITE_PROMOTION_RANK : BLACK_PROMOTION_RANK;
+        final int end = generateCastleMoves(alliance, getKingTile(alliance), moves,
+                generatePieceMoves(alliance, empty, empty, moves,
+                        generatePawnMoves(alliance, empty & ~promotionRank, moves, start)));
+        // en passant lands on an empty tile but is a capture
+        int count = start;
+        for (int i = start; i < end; i++) {
+            if (!isEnPassant(moves[i])) {
+                moves[count++] = moves[i];
+            }
+        }
+        return filterLegalMoves(alliance, EMPTY, moves, start, count);
+    }
+
+    // the move in full if the move in compact form, eg remembered from another position, is legal here,
+    // NULL_MOVE if it isn't. Only the moves of the piece on its from tile are generated to find out
+    public int toLegalMove(final int compactMove) {
+        if (compactMove == NULL_MOVE) {
+            return NULL_MOVE;
+        }
+        final Alliance alliance = this.sideToMove;
+        final int from = getCurrCoordinate(compactMove);
+        if (this.pieceAlliances[from] != alliance) {
+            return NULL_MOVE;
+        }
+        final long destination = squareBit(getDestinationCoordinate(compactMove)) & ~this.bitBoard.getOccupancy(alliance);
+        final long occupied = this.bitBoard.getOccupied();
+        final PieceType movedType = this.pieceTypes[from];
+        final int[] candidates = this.scratchMoves;
+        final int end;
+        switch (movedType) {
+            case PAWN:
+                end = generatePawnMoves(alliance, destination, candidates, 0);
+                break;
+            case KNIGHT:
+                end = addMoves(from, movedType, KNIGHT_ATTACKS[from] & destination, candidates, 0);
+                break;
+            case BISHOP:
+                end = addMoves(from, movedType, bishopAttacks(from, occupied) & destination, candidates, 0);
+                break;
+            case ROOK:
+                end = addMoves(from, movedType, rookAttacks(from, occupied) & destination, candidates, 0);
+                break;
+            case QUEEN:
+                end = addMoves(from, movedType, queenAttacks(from, occupied) & destination, candidates, 0);
+                break;
+            default:
+                end = generateCastleMoves(alliance, from, candidates,
+                        addMoves(from, movedType, KING_ATTACKS[from] & destination, candidates, 0));
+                break;
+        }
+        for (int i = 0; i < end; i++) {
+            final int move = candidates[i];
+            if (compact(move) == compact(compactMove)) {
+                return isLegalMove(alliance, move, this.bitBoard.calculatePinnedPieces(alliance),
+                        this.bitBoard.calculateCheckers(alliance)) ? move : NULL_MOVE;
+            }
+        }
+        return NULL_MOVE;
+    }
+
+    // keeps the moves between start and end that don't leave the king in check, returns the new end
+    private int filterLegalMoves(final Alliance alliance, final long checkers,
+                                 final int[] moves, final int start, final int end) {
+        final long pinned = this.bitBoard.calculatePinnedPieces(alliance);
+        int count = start;
+        for (int i = start; i < end; i++) {
+            final int move = moves[i];
+            if (isLegalMove(alliance, move, pinned, checkers)) {
+                moves[count++] = move;
+            }
+        }
+        return count;
+    }
+
+    // legal moves of the side to move when it is in check
+    public int generateEvasions(final int[] moves, final int start) {
+        final long checkers = this.bitBoard.calculateCheckers(this.sideToMove);
+        return checkers == EMPTY ? start : generateLegalMoves(moves, start);
+    }
+
+    // king moves, and with a single checker the moves that capture it or land between it and the king;
+    // in double check only the king can move
+    private int generateEvasionCandidates(final Alliance alliance, final long checkers,
+                                          final int[] moves, final int start) {
+        final long targets = (checkers & (checkers - 1)) != 0
+                ? EMPTY
+                : checkers | BETWEEN[getKingTile(alliance)][Long.numberOfTrailingZeros(checkers)];
+        return generateMoves(alliance, moves, start, targets, false);
+    }
+
+    private boolean isLegalMove(final Alliance alliance, final int move, final long pinned, final long checkers) {
+        return this.bitBoard.isLegalMove(alliance, getCurrCoordinate(move), getDestinationCoordinate(move),
+                isEnPassant(move), pinned, checkers);
+    }
+
+    public int generateMoves(final Alliance alliance, final int[] moves, final int start) {
+        return generateMoves(alliance, moves, start, ~EMPTY, true);
+    }
+
+    // targets limits where pieces other than the king may move to
+    private int generateMoves(final Alliance alliance, final int[] moves, final int start,
+                              final long targets, final boolean includeCastles) {
+        final long own = this.bitBoard.getOccupancy(alliance);
+        final int count = generatePieceMoves(alliance, ~own & targets, ~own, moves,
+                generatePawnMoves(alliance, targets, moves, start));
+        return includeCastles ? generateCastleMoves(alliance, getKingTile(alliance), moves, count) : count;
+    }
+
+    // knight, bishop, rook and queen moves onto destinations and king moves onto kingDestinations
+    private int generatePieceMoves(final Alliance alliance, final long destinations, final long kingDestinations,
+                                   final int[] moves, int count) {
+        final long occupied = this.bitBoard.getOccupied();
+
+        long knights = this.bitBoard.getPieces(alliance, PieceType.KNIGHT);
+        while (knights != 0) {
+            final int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            count = addMoves(from, PieceType.KNIGHT, KNIGHT_ATTACKS[from] & destinations, moves, count);
+        }
+        long bishops = this.bitBoard.getPieces(alliance, PieceType.BISHOP);
+        while (bishops != 0) {
+            final int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            count = addMoves(from, PieceType.BISHOP, bishopAttacks(from, occupied) & destinations, moves, count);
+        }
+        long rooks = this.bitBoard.getPieces(alliance, PieceType.ROOK);
+        while (rooks != 0) {
+            final int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            count = addMoves(from, PieceType.ROOK, rookAttacks(from, occupied) & destinations, moves, count);
+        }
+        long queens = this.bitBoard.getPieces(alliance, PieceType.QUEEN);
+        while (queens != 0) {
+            final int from = Long.numberOfTrailingZeros(queens);
+            queens &= queens - 1;
+            count = addMoves(from, PieceType.QUEEN, queenAttacks(from, occupied) & destinations, moves, count);
+        }
+        final int kingTile = getKingTile(alliance);
+        return addMoves(kingTile, PieceType.KING, KING_ATTACKS[kingTile] & kingDestinations, moves, count);
+    }
+
+    private int generatePawnMoves(final Alliance alliance, final long targets, final int[] moves, int count) {
+        final long enemies = this.bitBoard.getOccupancy(alliance.opposite());
+        final int forward = alliance.getDirection() * 8;
+        final boolean[] startRank = alliance.isWhite() ? BoardUtils.SECOND_RANK : BoardUtils.SEVENTH_RANK;
+        // the en passant tile always belongs to the side to move, it was created by the opponent's jump
+        // an en passant capture counts towards the targets both by where it lands and by what it takes
+        final long enPassantTarget = this.enPassantTile != NO_TILE && alliance == this.sideToMove
+                && ((squareBit(this.enPassantTile) | squareBit(this.enPassantTile - forward)) & targets) != 0
+                ? squareBit(this.enPassantTile) : EMPTY;
+
+        long pawns = this.bitBoard.getPieces(alliance, PieceType.PAWN);
+        while (pawns != 0) {
+            final int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+
+            final int oneStep = from + forward;
+            if (!this.bitBoard.isOccupied(oneStep)) {
+                if ((targets & squareBit(oneStep)) != 0) {
+                    count = addPawnMove(alliance, from, oneStep, null, moves, count);
+                }
+                final int twoSteps = oneStep + forward;
+                if (startRank[from] && !this.bitBoard.isOccupied(twoSteps) && (targets & squareBit(twoSteps)) != 0) {
+                    moves[count++] = create(from, twoSteps, PAWN_JUMP, PieceType.PAWN, null);
+                }
+            }
+
+            final long attacks = PAWN_ATTACKS[alliance.ordinal()][from];
+            long captures = attacks & enemies & targets;
+            while (captures != 0) {
+                final int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                count = addPawnMove(alliance, from, to, this.pieceTypes[to], moves, count);
+            }
+            if ((attacks & enPassantTarget) != 0) {
+                moves[count++] = create(from, this.enPassantTile, EN_PASSANT, PieceType.PAWN, PieceType.PAWN);
+            }
+        }
+        return count;
+    }
+
+    // pawns only ever promote to a queen, see Pawn#getPromotionPiece
+    private static int addPawnMove(final Alliance alliance, final int from, final int to,
+                                   final PieceType capturedType, final int[] moves, final int count) {
+        int flags = capturedType == null ? QUIET : CAPTURE;
+        if (alliance.isPawnPromotionSquare(to)) {
+            flags |= QUEEN_PROMOTION;
+        }
+        moves[count] = create(from, to, flags, PieceType.PAWN, capturedType);
+        return count + 1;
+    }
+
+    private int addMoves(final int from, final PieceType movedType, long destinations,
+                         final int[] moves, int count) {
+        while (destinations != 0) {
+            final int to = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            final PieceType capturedType = this.pieceTypes[to];
+            moves[count++] = create(from, to, capturedType == null ? QUIET : CAPTURE, movedType, capturedType);
+        }
+        return count;
+    }
+
+    // same rules as WhitePlayer/BlackPlayer#calculateCastleMoves: path empty, king not in check
+    // and the two tiles next to the king not attacked
+    private int generateCastleMoves(final Alliance alliance, final int kingTile, final int[] moves, int count) {
+        final int kingSideRight = alliance.isWhite() ? WHITE_KING_SIDE_CASTLE : BLACK_KING_SIDE_CASTLE;
+        final int queenSideRight = alliance.isWhite() ? WHITE_QUEEN_SIDE_CASTLE : BLACK_QUEEN_SIDE_CASTLE;
+        if ((this.castleRights & (kingSideRight | queenSideRight)) == 0) {
+            return count;
+        }
+        final Alliance opponent = alliance.opposite();
+        if (isSquareAttacked(kingTile, opponent)) {
+            return count;
+        }
+        final long occupied = this.bitBoard.getOccupied();
+        if ((this.castleRights & kingSideRight) != 0
+                && (occupied & (squareBit(kingTile + 1) | squareBit(kingTile + 2))) == 0
+                && !isSquareAttacked(kingTile + 1, opponent)
+                && !isSquareAttacked(kingTile + 2, opponent)) {
+            moves[count++] = create(kingTile, kingTile + 2, KING_SIDE_CASTLE, PieceType.KING, null);
+        }
+        if ((this.castleRights & queenSideRight) != 0
+                && (occupied & (squareBit(kingTile - 1) | squareBit(kingTile - 2) | squareBit(kingTile - 3))) == 0
+                && !isSquareAttacked(kingTile - 1, opponent)
+                && !isSquareAttacked(kingTile - 2, opponent)) {
+            moves[count++] = create(kingTile, kingTile - 2, QUEEN_SIDE_CASTLE, PieceType.KING, null);
+        }
+        return count;
+    }
+
+    /* Attacks */
+    // material the move wins once all recaptures on its destination are played out, see
+    // BitBoard#staticExchangeEvaluation
+    public int staticExchangeEvaluation(final int move) {
+        return staticExchangeEvaluation(getCurrCoordinate(move), getDestinationCoordinate(move),
+                getMovedType(move), getCapturedType(move));
+    }
+
+    public int staticExchangeEvaluation(final int from,
+                                        final int to,
+                                        final PieceType movedType,
+                                        final PieceType capturedType) {
+        return this.bitBoard.staticExchangeEvaluation(from, to, movedType, capturedType, this.exchangeGains);
+    }
+
+    public boolean isSquareAttacked(final int tileCoordinate, final Alliance attacker) {
+        return this.bitBoard.isSquareAttacked(tileCoordinate, attacker);
+    }
+
+    public boolean isInCheck(final Alliance alliance) {
+        return isSquareAttacked(getKingTile(alliance), alliance.opposite());
+    }
+
+    public int getKingTile(final Alliance alliance) {
+        return this.bitBoard.getKingTile(alliance);
+    }
+
+    // number of pseudo-legal moves, the search board counterpart of Player#getLegalMoves().size()
+    public int countMoves(final Alliance alliance) {
+        return generateMoves(alliance, this.scratchMoves, 0);
+    }
+
+    public boolean hasLegalMove(final Alliance alliance) {
+        final long checkers = this.bitBoard.calculateCheckers(alliance);
+        final int end = checkers == EMPTY
+                ? generateMoves(alliance, this.scratchMoves, 0)
+                : generateEvasionCandidates(alliance, checkers, this.scratchMoves, 0);
+        final long pinned = this.bitBoard.calculatePinnedPieces(alliance);
+        for (int i = 0; i < end; i++) {
+            if (isLegalMove(alliance, this.scratchMoves[i], pinned, checkers)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isCheckmated(final Alliance alliance) {
+        return isInCheck(alliance) && !hasLegalMove(alliance);
+    }
+
+    // drawn by the fifty-move rule or by repetition, unless the side to move was just checkmated
+    public boolean isDraw() {
+        if (this.halfMoveClock >= FIFTY_MOVE_RULE_PLIES) {
+            return !isCheckmated(this.sideToMove);
+        }
+        return isRepetition();
+    }
+
+    // Only positions with the same side to move since the last capture or pawn move can be the same.
+    // A position first reached since the search started only has to come back once: the side that
+    // steered into the repetition can repeat it again, so the line is a draw. One from the game
+    // before must have come up twice already, the third time is a draw by the rules.
+    private boolean isRepetition() {
+        int gameRepetitions = 0;
+        for (int pliesBack = 2; pliesBack <= this.halfMoveClock; pliesBack += 2) {
+            final int ply = this.ply - pliesBack;
+            // the side that passed didn't repeat anything
+            if (isNullMove(ply) || isNullMove(ply + 1)) {
+                return false;
+            }
+            if (ply >= 0) {
+                if (this.undoZobristKeys[ply] == this.zobristKey) {
+                    return true;
+                }
+            } else {
+                final int historyIndex = this.gameHistory.length + ply;
+                if (historyIndex < 0) {
+                    return false;
+                }
+                if (this.gameHistory[historyIndex] == this.zobristKey && ++gameRepetitions == 2) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isNullMove(final int ply) {
+        return ply >= 0 && this.undoMoves[ply] == PackedMove.NULL_MOVE;
+    }
+
+    // returns the change to the zobrist key
+    private long moveCastleRook(final int kingFrom, final int kingTo, final boolean undo) {
+        final boolean kingSide = kingTo > kingFrom;
+        final int rookStart = kingSide ? kingFrom + 3 : kingFrom - 4;
+        final int rookDestination = kingSide ? kingFrom + 1 : kingFrom - 1;
+        final int from = undo ? rookDestination : rookStart;
+        final int to = undo ? rookStart : rookDestination;
+        final Alliance alliance = this.pieceAlliances[from];
+        clearPiece(from);
+        putPiece(alliance, PieceType.ROOK, to);
+        return Zobrist.pieceKey(alliance, PieceType.ROOK, from) ^ Zobrist.pieceKey(alliance, PieceType.ROOK, to);
+    }
+
+    // from scratch, only used to check the incremental key when assertions are enabled
+    private long calculateZobristKey() {
+        long key = 0L;
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            if (this.pieceTypes[tile] != null) {
+                key ^= Zobrist.pieceKey(this.pieceAlliances[tile], this.pieceTypes[tile], tile);
+            }
+        }
+        return key ^ Zobrist.castleKey(this.castleRights) ^ Zobrist.enPassantKey(this.enPassantTile)
+                ^ Zobrist.sideKey(this.sideToMove);
+    }
+
+    private void putPiece(final Alliance alliance, final PieceType pieceType, final int tile) {
+        this.pieceTypes[tile] = pieceType;
+        this.pieceAlliances[tile] = alliance;
+        this.bitBoard.addPiece(alliance, pieceType, tile);
+    }
+
+    private void clearPiece(final int tile) {
+        this.bitBoard.removePiece(this.pieceAlliances[tile], this.pieceTypes[tile], tile);
+        this.pieceTypes[tile] = null;
+        this.pieceAlliances[tile] = null;
+    }
+
+    private void growUndoStack() {
+        final int size = this.undoMoves.length * 2;
+        this.undoMoves = Arrays.copyOf(this.undoMoves, size);
+        this.undoCastleRights = Arrays.copyOf(this.undoCastleRights, size);
+        this.undoEnPassantTiles = Arrays.copyOf(this.undoEnPassantTiles, size);
+        this.undoZobristKeys = Arrays.copyOf(this.undoZobristKeys, size);
+        this.undoHalfMoveClocks = Arrays.copyOf(this.undoHalfMoveClocks, size);
+    }
+}
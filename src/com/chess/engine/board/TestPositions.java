@@ -0,0 +1,19 @@
+package com.chess.engine.board;
+
+import com.google.common.collect.ImmutableList;
+
+// Positions the harness mains run on by default: the start position and the well-known perft
+// positions, between them castling both ways, en passant, promotions and checks.
+public final class TestPositions {
+    public static final ImmutableList<String> FENS = ImmutableList.of(
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq -",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ -"
+    );
+
+    private TestPositions() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+}
@@ -5,17 +5,27 @@ import com.google.common.collect.ImmutableMap;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class Tile {
     protected final int tileCoordinate;
     private static final Map<Integer, EmptyTile> EMPTY_TILES_CACHE = createAllPossibleEmptyTiles();
+    // pieces are interned and know their own tile, so each one needs at most one occupied tile,
+    // filled in the first time a piece is placed on a board
+    private static final Map<Piece, OccupiedTile> OCCUPIED_TILES_CACHE = new ConcurrentHashMap<>();
 
     private Tile(int tileCoordinate) {
         this.tileCoordinate = tileCoordinate;
     }
 
     public static Tile createTile(final int tileCoordinate, final Piece piece) {
-        return piece != null ? new OccupiedTile(tileCoordinate, piece) : EMPTY_TILES_CACHE.get(tileCoordinate);
+        return piece != null
+                ? OCCUPIED_TILES_CACHE.computeIfAbsent(piece, Tile::createOccupiedTile)
+                : EMPTY_TILES_CACHE.get(tileCoordinate);
+    }
+
+    private static OccupiedTile createOccupiedTile(final Piece piece) {
+        return new OccupiedTile(piece.getPiecePosition(), piece);
     }
 
     private static Map<Integer, EmptyTile> createAllPossibleEmptyTiles() {
@@ -0,0 +1,91 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Random;
+
+// Zobrist keys: one random 64 bit number per piece on a tile, castle rights set, en passant file
+// and black to move. A position's key is the xor of the numbers of everything in it, so a move
+// updates the key by xoring out what it removes and xoring in what it adds.
+public final class Zobrist {
+    // fixed so that keys are the same on every run and can be stored alongside positions
+    public static final long SEED = 0x4D61676E75734EL;
+
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+
+    private static final long[][] PIECE_KEYS = new long[Alliance.values().length * NUM_PIECE_TYPES][BoardUtils.NUM_TILES];
+    // indexed by the castle rights bits of BoardUtils
+    private static final long[] CASTLE_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                pieceKeys[tile] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLE_KEYS.length; i++) {
+            CASTLE_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    public static long pieceKey(final Alliance alliance, final PieceType pieceType, final int tileCoordinate) {
+        return PIECE_KEYS[alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal()][tileCoordinate];
+    }
+
+    public static long castleKey(final int castleRights) {
+        return CASTLE_KEYS[castleRights];
+    }
+
+    // only the file of the tile behind the jumped pawn matters, no tile hashes to nothing
+    public static long enPassantKey(final int enPassantTile) {
+        return enPassantTile < 0 ? 0L : EN_PASSANT_KEYS[enPassantTile % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    public static long sideKey(final Alliance sideToMove) {
+        return sideToMove.isBlack() ? BLACK_TO_MOVE_KEY : 0L;
+    }
+
+    // fingerprint of every random number, keys stored by a build with other numbers mean nothing to this one
+    public static long checksum() {
+        long checksum = SEED;
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (final long key : pieceKeys) {
+                checksum = Long.rotateLeft(checksum, 1) ^ key;
+            }
+        }
+        for (final long key : CASTLE_KEYS) {
+            checksum = Long.rotateLeft(checksum, 1) ^ key;
+        }
+        for (final long key : EN_PASSANT_KEYS) {
+            checksum = Long.rotateLeft(checksum, 1) ^ key;
+        }
+        return Long.rotateLeft(checksum, 1) ^ BLACK_TO_MOVE_KEY;
+    }
+
+    // the key of a position from scratch, boards and search boards keep theirs up to date move by move
+    public static long calculateKey(final Piece[] boardConfig,
+                                    final Alliance sideToMove,
+                                    final int castleRights,
+                                    final int enPassantTile) {
+        long key = 0L;
+        for (final Piece piece : boardConfig) {
+            if (piece != null) {
+                key ^= pieceKey(piece.getPieceAlliance(), piece.getPieceType(), piece.getPiecePosition());
+            }
+        }
+        return key ^ castleKey(castleRights) ^ enPassantKey(enPassantTile) ^ sideKey(sideToMove);
+    }
+}
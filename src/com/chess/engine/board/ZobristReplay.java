@@ -0,0 +1,96 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Checks the incrementally kept zobrist keys: plays random games from the TestPositions on a Board and
+// a SearchBoard side by side, and after every move compares both keys, and the board's castle rights,
+// with those of the same position built from scratch. Taking the moves back on the search board must
+// give back the keys it had on the way. Throws on the first mismatch, with or without -ea.
+// usage: ZobristReplay [games] [max plies] [seed]
+public final class ZobristReplay {
+    private static final int DEFAULT_GAMES = 300;
+    private static final int DEFAULT_MAX_PLIES = 200;
+    private static final long DEFAULT_SEED = 1L;
+
+    private ZobristReplay() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    public static void main(final String[] args) {
+        final int numGames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        final int maxPlies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_PLIES;
+        final Random random = new Random(args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED);
+
+        long positionsChecked = 0;
+        for (int game = 0; game < numGames; game++) {
+            final String fen = TestPositions.FENS.get(game % TestPositions.FENS.size());
+            Board board = FenUtilities.createGameFromFEN(fen);
+            final SearchBoard searchBoard = new SearchBoard(board);
+            final long[] keys = new long[maxPlies + 1];
+            keys[0] = searchBoard.getZobristKey();
+            int ply = 0;
+            while (ply < maxPlies) {
+                final Move move = randomLegalMove(board, random);
+                if (move == null) {
+                    break;
+                }
+                board = board.currentPlayer().makeMove(move).getTransitionBoard();
+                searchBoard.makeMove(PackedMove.fromMove(move));
+                ply++;
+                keys[ply] = searchBoard.getZobristKey();
+                check(board, searchBoard, "game " + game + " from " + fen + ", ply " + ply + " after " + move);
+                positionsChecked++;
+            }
+            for (; ply > 0; ply--) {
+                searchBoard.unmakeMove();
+                if (searchBoard.getZobristKey() != keys[ply - 1]) {
+                    throw new RuntimeException("Key not restored taking back ply " + ply + " of game " + game);
+                }
+            }
+        }
+        System.out.printf("%,d positions of %d games, all keys match%n", positionsChecked, numGames);
+    }
+
+    private static void check(final Board board, final SearchBoard searchBoard, final String where) {
+        final Board fromScratch = rebuild(board);
+        if (board.getZobristKey() != fromScratch.getZobristKey()) {
+            throw new RuntimeException("Board key out of sync in " + where);
+        }
+        if (board.getCastleRights() != fromScratch.getCastleRights()) {
+            throw new RuntimeException("Board castle rights out of sync in " + where);
+        }
+        if (searchBoard.getZobristKey() != fromScratch.getZobristKey()) {
+            throw new RuntimeException("SearchBoard key out of sync in " + where);
+        }
+    }
+
+    // the same position through the builder without a previous board, which computes the key in full
+    private static Board rebuild(final Board board) {
+        final Board.Builder builder = new Board.Builder();
+        for (final Piece piece : board.getAllPieces()) {
+            builder.setPiece(piece);
+        }
+        builder.setNextMoveMaker(board.currentPlayer().getAlliance());
+        builder.setEnPassantPawn(board.getEnPassantPawn());
+        return builder.build();
+    }
+
+    // null when the side to move has no legal move
+    private static Move randomLegalMove(final Board board, final Random random) {
+        final List<Move> moves = new ArrayList<>(board.currentPlayer().getLegalMoves());
+        Collections.shuffle(moves, random);
+        for (final Move move : moves) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                return move;
+            }
+        }
+        return null;
+    }
+}
@@ -1,70 +1,38 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public class Bishop extends Piece {
-    private static final int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-9, -7, 7, 9};
+    private static final Bishop[] BISHOP_CACHE = createAllPossiblePieces(new Bishop[CACHE_SIZE], Bishop::new);
 
-    public Bishop(Alliance pieceAlliance, int piecePosition) {
-        super(pieceAlliance, piecePosition, PieceType.BISHOP, true);
+    private Bishop(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
+        super(pieceAlliance, piecePosition, PieceType.BISHOP, isFirstMove);
     }
 
-    @Override
-    public Collection<Move> calculateLegalMoves(Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int candidateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-            int candidateDestinationCoordinate = this.piecePosition;
-
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, candidateOffset)
-                        || isEighthColumnExclusion(candidateDestinationCoordinate, candidateOffset)
-                ) {
-                    break;
-                }
-
-                    candidateDestinationCoordinate += candidateOffset;
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        legalMoves.add(new Move.NormalMove(board, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance alliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != alliance) {
-                            legalMoves.add(new Move.CapturingMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break; // piece is blocking bishop, no need to consider diagonal further
-                    }
-                }
-            }
-        }
-
-        return legalMoves;
+    public static Bishop createBishop(final Alliance pieceAlliance, final int piecePosition) {
+        return createBishop(pieceAlliance, piecePosition, true);
     }
 
-    @Override
-    public Bishop movePiece(final Move move) {
-        return new Bishop(move.getPieceToBeMoved().getPieceAlliance(), move.getDestinationCoordinate());
+    public static Bishop createBishop(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
+        return BISHOP_CACHE[cacheIndex(pieceAlliance, piecePosition, isFirstMove)];
     }
 
-    /* Private helper methods to ensure piece that exceeds board coordinates
-     * is not considered when calculating legal moves
-     */
-    private static boolean isFirstColumnExclusion(int currentPosition, int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == 7);
+    @Override
+    public Collection<Move> calculateLegalMoves(Board board) {
+        // magic bitboard lookup of every tile reachable along the diagonals,
+        // stopping at the first blocker in each direction
+        final long attacks = BitBoardUtils.bishopAttacks(this.piecePosition, board.getBitBoard().getOccupied());
+        return calculateMovesFromAttacks(board, attacks);
     }
 
-    private static boolean isEighthColumnExclusion(int currentPosition, int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 || candidateOffset == 9);
+    @Override
+    public Bishop movePiece(final Move move) {
+        return createBishop(move.getPieceToBeMoved().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
@@ -13,33 +13,73 @@ import java.util.Collection;
 import java.util.List;
 
 public class King extends Piece {
-    private static final int[] CANDIDATE_MOVE_COORDINATES = {-9, -8, -7, -1, 1, 7, 8, 9};
     private final boolean isCastled;
     private final boolean kingSideCastleCapable;
     private final boolean queenSideCastleCapable;
 
-    public King(final Alliance alliance,
-                final int piecePosition,
-                final boolean kingSideCastleCapable,
-                final boolean queenSideCastleCapable) {
-        super(alliance, piecePosition, PieceType.KING, true);
-        this.isCastled = false;
-        this.kingSideCastleCapable = kingSideCastleCapable;
-        this.queenSideCastleCapable = queenSideCastleCapable;
-    }
+    // every tile, alliance and first move combination times the three castle flags
+    private static final King[] KING_CACHE = createAllPossibleKings();
 
-    public King(final Alliance alliance,
-                final int piecePosition,
-                final boolean isFirstMove,
-                final boolean isCastled,
-                final boolean kingSideCastleCapable,
-                final boolean queenSideCastleCapable) {
+    private King(final Alliance alliance,
+                 final int piecePosition,
+                 final boolean isFirstMove,
+                 final boolean isCastled,
+                 final boolean kingSideCastleCapable,
+                 final boolean queenSideCastleCapable) {
         super(alliance, piecePosition, PieceType.KING, isFirstMove);
         this.isCastled = isCastled;
         this.kingSideCastleCapable = kingSideCastleCapable;
         this.queenSideCastleCapable = queenSideCastleCapable;
     }
 
+    public static King createKing(final Alliance alliance,
+                                  final int piecePosition,
+                                  final boolean kingSideCastleCapable,
+                                  final boolean queenSideCastleCapable) {
+        return createKing(alliance, piecePosition, true, false, kingSideCastleCapable, queenSideCastleCapable);
+    }
+
+    public static King createKing(final Alliance alliance,
+                                  final int piecePosition,
+                                  final boolean isFirstMove,
+                                  final boolean isCastled,
+                                  final boolean kingSideCastleCapable,
+                                  final boolean queenSideCastleCapable) {
+        return KING_CACHE[kingCacheIndex(cacheIndex(alliance, piecePosition, isFirstMove),
+                isCastled, kingSideCastleCapable, queenSideCastleCapable)];
+    }
+
+    private static int kingCacheIndex(final int pieceIndex,
+                                      final boolean isCastled,
+                                      final boolean kingSideCastleCapable,
+                                      final boolean queenSideCastleCapable) {
+        return (pieceIndex << 3)
+                | (isCastled ? 4 : 0)
+                | (kingSideCastleCapable ? 2 : 0)
+                | (queenSideCastleCapable ? 1 : 0);
+    }
+
+    private static King[] createAllPossibleKings() {
+        final King[] kings = new King[CACHE_SIZE << 3];
+        final boolean[] flags = {true, false};
+        for (final Alliance alliance : Alliance.values()) {
+            for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
+                for (final boolean isFirstMove : flags) {
+                    for (final boolean isCastled : flags) {
+                        for (final boolean kingSide : flags) {
+                            for (final boolean queenSide : flags) {
+                                kings[kingCacheIndex(cacheIndex(alliance, position, isFirstMove),
+                                        isCastled, kingSide, queenSide)] =
+                                        new King(alliance, position, isFirstMove, isCastled, kingSide, queenSide);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return kings;
+    }
+
     public boolean isCastled() {
         return this.isCastled;
     }
@@ -58,49 +98,27 @@ public class King extends Piece {
     public Collection<Move> calculateLegalMoves(Board board) {
         final List<Move> legalMoves = new ArrayList<>();
 
-        for (final int candidateOffset : CANDIDATE_MOVE_COORDINATES) {
-            final int destinationCoordinate = this.piecePosition + candidateOffset;
-
-            if (isFirstColumnExclusion(this.piecePosition, candidateOffset)
-                || isEighthColumnExclusion(this.piecePosition, candidateOffset)) {
-                continue;
-            }
-
-            if (BoardUtils.isValidTileCoordinate(destinationCoordinate)) {
-                final Tile destinationTile = board.getTile(destinationCoordinate);
-                if (!destinationTile.isTileOccupied()) {
-                    legalMoves.add(new NormalMove(board, this, destinationCoordinate));
-                } else {
-                    final Piece pieceAtDestination = destinationTile.getPiece();
-                    if (this.pieceAlliance != pieceAtDestination.pieceAlliance) {
-                        legalMoves.add(new CapturingMove(board, this, destinationCoordinate, pieceAtDestination));
-                    }
+        for (final int destinationCoordinate : BoardUtils.KING_TARGETS[this.piecePosition]) {
+            final Tile destinationTile = board.getTile(destinationCoordinate);
+            if (!destinationTile.isTileOccupied()) {
+                legalMoves.add(new NormalMove(board, this, destinationCoordinate));
+            } else {
+                final Piece pieceAtDestination = destinationTile.getPiece();
+                if (this.pieceAlliance != pieceAtDestination.pieceAlliance) {
+                    legalMoves.add(new CapturingMove(board, this, destinationCoordinate, pieceAtDestination));
                 }
             }
         }
 
-
         return legalMoves;
     }
 
     @Override
     public King movePiece(final Move move) {
-        return new King(this.pieceAlliance, move.getDestinationCoordinate(), false, move.isCastlingMove(), false,
+        return createKing(this.pieceAlliance, move.getDestinationCoordinate(), false, move.isCastlingMove(), false,
                 false);
     }
 
-    /* Private helper methods to ensure piece that exceeds board coordinates
-     * is not considered when calculating legal moves
-     */
-    private static boolean isFirstColumnExclusion(int currentPosition, int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && ((candidateOffset == -9
-                || candidateOffset == -1 || candidateOffset == 7));
-    }
-
-    private static boolean isEighthColumnExclusion(int currentPosition, int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && ((candidateOffset == 9
-                || candidateOffset == 1 || candidateOffset == -7));
-    }
     @Override
     public String toString() {
         return PieceType.KING.toString();
@@ -11,10 +11,18 @@ import java.util.Collection;
 import java.util.List;
 
 public class Knight extends Piece {
-    private static final int[] CANDIDATE_MOVE_COORDINATES = {-17, -15, -10, -6, 6, 10, 15, 17};
+    private static final Knight[] KNIGHT_CACHE = createAllPossiblePieces(new Knight[CACHE_SIZE], Knight::new);
 
-    public Knight(final Alliance pieceAlliance, final int piecePosition) {
-        super(pieceAlliance, piecePosition, PieceType.KNIGHT, true);
+    private Knight(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
+        super(pieceAlliance, piecePosition, PieceType.KNIGHT, isFirstMove);
+    }
+
+    public static Knight createKnight(final Alliance pieceAlliance, final int piecePosition) {
+        return createKnight(pieceAlliance, piecePosition, true);
+    }
+
+    public static Knight createKnight(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
+        return KNIGHT_CACHE[cacheIndex(pieceAlliance, piecePosition, isFirstMove)];
     }
 
     @Override
@@ -22,30 +30,18 @@ public class Knight extends Piece {
 
         List<Move> legalMoves = new ArrayList<>();
 
-        for (final int candidateOffset : CANDIDATE_MOVE_COORDINATES) {
-            int candidateDestination;
-            candidateDestination = this.piecePosition + candidateOffset;
-            if (isFirstColumnExclusion(this.piecePosition, candidateOffset)
-                    || isSecondColumnExclusion(this.piecePosition, candidateOffset)
-                    || isSeventhColumnExclusion(this.piecePosition, candidateOffset)
-                    || isEighthColumnExclusion(this.piecePosition, candidateOffset)) {
-                continue;
-            }
-
-            // candidate tile is not out of bounds
-            if (BoardUtils.isValidTileCoordinate(candidateDestination)) {
-                final Tile candidateDestinationTile = board.getTile(candidateDestination);
+        for (final int candidateDestination : BoardUtils.KNIGHT_TARGETS[this.piecePosition]) {
+            final Tile candidateDestinationTile = board.getTile(candidateDestination);
 
-                if (!candidateDestinationTile.isTileOccupied()) {
-                    legalMoves.add(new Move.NormalMove(board, this, candidateDestination));
-                } else {
-                    final Piece pieceOnDestination = candidateDestinationTile.getPiece();
-                    final Alliance pieceAlliance = pieceOnDestination.getPieceAlliance();
+            if (!candidateDestinationTile.isTileOccupied()) {
+                legalMoves.add(new Move.NormalMove(board, this, candidateDestination));
+            } else {
+                final Piece pieceOnDestination = candidateDestinationTile.getPiece();
+                final Alliance pieceAlliance = pieceOnDestination.getPieceAlliance();
 
-                    // piece on destination tile is enemy
-                    if (pieceAlliance != this.pieceAlliance) {
-                        legalMoves.add(new Move.CapturingMove(board, this, candidateDestination, pieceOnDestination));
-                    }
+                // piece on destination tile is enemy
+                if (pieceAlliance != this.pieceAlliance) {
+                    legalMoves.add(new Move.CapturingMove(board, this, candidateDestination, pieceOnDestination));
                 }
             }
         }
@@ -55,30 +51,7 @@ public class Knight extends Piece {
 
     @Override
     public Knight movePiece(final Move move) {
-        return new Knight(move.getPieceToBeMoved().getPieceAlliance(), move.getDestinationCoordinate());
-    }
-
-    /* Private helper methods to ensure piece that exceeds board coordinates
-     * is not considered when calculating legal moves
-     */
-    private static boolean isFirstColumnExclusion(int currentPosition, int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && ((candidateOffset == -17 || candidateOffset == -10
-                || candidateOffset == 6 || candidateOffset == 15));
-    }
-
-    private static boolean isSecondColumnExclusion(int currentPosition, int candidateOffset) {
-        return BoardUtils.SECOND_COLUMN[currentPosition] && (candidateOffset == -10
-                || candidateOffset == 6);
-    }
-
-    private static boolean isSeventhColumnExclusion(int currentPosition, int candidateOffset) {
-        return BoardUtils.SEVENTH_COLUMN[currentPosition] && (candidateOffset == -6
-                || candidateOffset == 10);
-    }
-
-    private static boolean isEighthColumnExclusion(int currentPosition, int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && ((candidateOffset == 17 || candidateOffset == 10
-                || candidateOffset == -6 || candidateOffset == -15));
+        return createKnight(move.getPieceToBeMoved().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
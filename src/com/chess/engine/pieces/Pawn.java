@@ -16,110 +16,64 @@ import java.util.List;
 
 
 public class Pawn extends Piece {
-    private static final int[] CANDIDATE_MOVE_COORDINATES = {7, 8, 9, 16};
+    private static final Pawn[] PAWN_CACHE = createAllPossiblePieces(new Pawn[CACHE_SIZE], Pawn::new);
 
-    public Pawn(Alliance pieceAlliance, int piecePosition) {
-        super(pieceAlliance, piecePosition, PieceType.PAWN, true);
+    private Pawn(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
+        super(pieceAlliance, piecePosition, PieceType.PAWN, isFirstMove);
     }
 
-    public Pawn(final Alliance alliance,
-                final int piecePosition,
-                final boolean isFirstMove) {
-        super(alliance, piecePosition, PieceType.PAWN, isFirstMove);
+    public static Pawn createPawn(final Alliance pieceAlliance, final int piecePosition) {
+        return createPawn(pieceAlliance, piecePosition, true);
+    }
+
+    public static Pawn createPawn(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
+        return PAWN_CACHE[cacheIndex(pieceAlliance, piecePosition, isFirstMove)];
     }
 
     @Override
     public Collection<Move> calculateLegalMoves(Board board) {
         final List<Move> legalMoves = new ArrayList<>();
 
-        for (final int candidateOffset : CANDIDATE_MOVE_COORDINATES) {
-            int candidateDestinationCoordinate = this.piecePosition +
-                    (this.pieceAlliance.getDirection() * candidateOffset);
-
-            if (!BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) continue;
-
-            if (candidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                    legalMoves.add(new PawnPromotionMove(
-                            new PawnMove(board, this, candidateDestinationCoordinate)));
-                } else {
-                    legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
-                }
-            } else if (candidateOffset == 16 && this.isFirstMove()
-                    && ((BoardUtils.SEVENTH_RANK[this.piecePosition] && this.pieceAlliance.isBlack()) ||
-                    (BoardUtils.SECOND_RANK[this.piecePosition] && this.pieceAlliance.isWhite())
-            )) {
-                final int behindCandidateDestinationCoordinate =
-                        this.piecePosition + (this.pieceAlliance.getDirection() * 8);
-                if (!board.getTile(behindCandidateDestinationCoordinate).isTileOccupied()
-                        && !board.getTile(candidateDestinationCoordinate).isTileOccupied()
-                ) {
-                    legalMoves.add(new PawnJumpMove(board, this, candidateDestinationCoordinate));
-                }
-            } else if (candidateOffset == 7 &&
-                    !(BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite()
-                            || BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack())) {
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        // capture and promote
-                        if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                            legalMoves.add(new PawnPromotionMove(
-                                    new PawnCapturingMove(
-                                            board, this, candidateDestinationCoordinate, pieceOnCandidate)));
-                        } else {
-                            legalMoves.add(new PawnCapturingMove(board, this, candidateDestinationCoordinate,
-                                    pieceOnCandidate));
-                        }
-                    }
-                    // en passant
-                } else if (board.getEnPassantPawn() != null) {
-                    if (board.getEnPassantPawn().getPiecePosition() ==
-                            // handle right capture for white, handle right capture for black
-                            (this.piecePosition + this.pieceAlliance.getOppositeDirection())) {
-                        final Piece pieceOnCandidate = board.getEnPassantPawn();
-                        if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                            legalMoves.add(
-                                    new PawnEnPassantMove(
-                                            board,
-                                            this,
-                                            candidateDestinationCoordinate,
-                                            pieceOnCandidate));
-                        }
-                    }
+        final int direction = this.pieceAlliance.getDirection();
+        // a pawn never stands on its last rank, so the tile ahead is always on the board
+        final int candidateDestinationCoordinate = this.piecePosition + direction * 8;
+
+        if (!board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
+            if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
+                legalMoves.add(new PawnPromotionMove(
+                        new PawnMove(board, this, candidateDestinationCoordinate)));
+            } else {
+                legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
+                final int jumpDestinationCoordinate = candidateDestinationCoordinate + direction * 8;
+                if (this.isFirstMove()
+                        && ((BoardUtils.SEVENTH_RANK[this.piecePosition] && this.pieceAlliance.isBlack()) ||
+                        (BoardUtils.SECOND_RANK[this.piecePosition] && this.pieceAlliance.isWhite()))
+                        && !board.getTile(jumpDestinationCoordinate).isTileOccupied()) {
+                    legalMoves.add(new PawnJumpMove(board, this, jumpDestinationCoordinate));
                 }
-            } else if (candidateOffset == 9 &&
-                    !(BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite()
-                            || BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack())) {
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
+            }
+        }
+
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        for (final int attackCoordinate : BoardUtils.PAWN_ATTACK_TARGETS[this.pieceAlliance.ordinal()][this.piecePosition]) {
+            if (board.getTile(attackCoordinate).isTileOccupied()) {
+                final Piece pieceOnCandidate = board.getTile(attackCoordinate).getPiece();
+                if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
                     // capture and promote
-                    if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
+                    if (this.pieceAlliance.isPawnPromotionSquare(attackCoordinate)) {
                         legalMoves.add(new PawnPromotionMove(
-                                new PawnCapturingMove(
-                                        board, this, candidateDestinationCoordinate, pieceOnCandidate)));
+                                new PawnCapturingMove(board, this, attackCoordinate, pieceOnCandidate)));
                     } else {
-                        legalMoves.add(new PawnCapturingMove(board, this, candidateDestinationCoordinate,
-                                pieceOnCandidate));
-                    }
-                }
-                // en passant
-                else if (board.getEnPassantPawn() != null) {
-                    if (board.getEnPassantPawn().getPiecePosition() ==
-                            // handle left capture for white, handle left capture for black
-                            (this.piecePosition - this.pieceAlliance.getOppositeDirection())) {
-                        final Piece pieceOnCandidate = board.getEnPassantPawn();
-                        if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                            legalMoves.add(
-                                    new PawnEnPassantMove(
-                                            board,
-                                            this,
-                                            candidateDestinationCoordinate,
-                                            pieceOnCandidate));
-                        }
+                        legalMoves.add(new PawnCapturingMove(board, this, attackCoordinate, pieceOnCandidate));
                     }
                 }
             }
+            // en passant, the attacked tile is the one the enemy pawn jumped over
+            else if (enPassantPawn != null
+                    && this.pieceAlliance != enPassantPawn.getPieceAlliance()
+                    && attackCoordinate == enPassantPawn.getPiecePosition() + direction * 8) {
+                legalMoves.add(new PawnEnPassantMove(board, this, attackCoordinate, enPassantPawn));
+            }
         }
 
         return legalMoves;
@@ -128,7 +82,7 @@ public class Pawn extends Piece {
 
     @Override
     public Pawn movePiece(final Move move) {
-        return new Pawn(move.getPieceToBeMoved().getPieceAlliance(), move.getDestinationCoordinate());
+        return createPawn(move.getPieceToBeMoved().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
@@ -137,7 +91,7 @@ public class Pawn extends Piece {
     }
 
     public Piece getPromotionPiece() {
-        return new Queen(this.pieceAlliance, this.piecePosition, false);
+        return Queen.createQueen(this.pieceAlliance, this.piecePosition, false);
     }
 
 }
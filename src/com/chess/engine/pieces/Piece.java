@@ -1,19 +1,29 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.CapturingMove;
+import com.chess.engine.board.Move.NormalMove;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Objects;
+import java.util.List;
 
+// Pieces are immutable and interned: every subclass keeps a cache of all its possible instances and
+// hands them out through static factories, so two pieces are equal exactly when they are the same object.
 public abstract class Piece {
+    // one entry per alliance, first move flag and tile
+    protected static final int CACHE_SIZE = 2 * 2 * BoardUtils.NUM_TILES;
+
     protected final PieceType pieceType;
     protected final int piecePosition;
     protected final Alliance pieceAlliance;
     protected final boolean isFirstMove;
 
-    public Piece(Alliance pieceAlliance, int piecePosition, final PieceType pieceType, final Boolean isFirstMove) {
+    protected Piece(Alliance pieceAlliance, int piecePosition, final PieceType pieceType, final Boolean isFirstMove) {
         this.piecePosition = piecePosition;
         this.pieceAlliance = pieceAlliance;
         this.isFirstMove = isFirstMove;
@@ -31,6 +41,24 @@ public abstract class Piece {
         return isFirstMove;
     }
 
+    // turns a bitboard of attacked tiles into moves, skipping tiles occupied by our own pieces
+    protected Collection<Move> calculateMovesFromAttacks(final Board board, final long attacks) {
+        final BitBoard bitBoard = board.getBitBoard();
+        final List<Move> legalMoves = new ArrayList<>(Long.bitCount(attacks));
+        long destinations = attacks & ~bitBoard.getOccupancy(this.pieceAlliance);
+        while (destinations != 0) {
+            final int destinationCoordinate = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            if (bitBoard.isOccupied(destinationCoordinate)) {
+                legalMoves.add(new CapturingMove(board, this, destinationCoordinate,
+                        board.getTile(destinationCoordinate).getPiece()));
+            } else {
+                legalMoves.add(new NormalMove(board, this, destinationCoordinate));
+            }
+        }
+        return legalMoves;
+    }
+
     /* Getters */
     public Alliance getPieceAlliance() {
         return this.pieceAlliance;
@@ -43,21 +71,23 @@ public abstract class Piece {
         return this.pieceType.getPieceValue();
     }
 
-    @Override
-    public int hashCode() {
-        return Objects.hash(pieceType, piecePosition, pieceAlliance, isFirstMove);
+    /* Canonical instances */
+    protected static int cacheIndex(final Alliance alliance, final int position, final boolean isFirstMove) {
+        return ((alliance.ordinal() << 1) | (isFirstMove ? 1 : 0)) * BoardUtils.NUM_TILES + position;
     }
 
-    @Override
-    public boolean equals(Object other) {
-        if (this == other) return true;
-        if (!(other instanceof Piece)) return false;
-        final Piece otherPiece = (Piece) other;
-        return pieceAlliance == otherPiece.getPieceAlliance()
-                && pieceType == otherPiece.getPieceType()
-                && piecePosition == otherPiece.getPiecePosition()
-                && isFirstMove == otherPiece.isFirstMove();
+    protected static <T extends Piece> T[] createAllPossiblePieces(final T[] pieces, final PieceFactory<T> factory) {
+        for (final Alliance alliance : Alliance.values()) {
+            for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
+                pieces[cacheIndex(alliance, position, true)] = factory.create(alliance, position, true);
+                pieces[cacheIndex(alliance, position, false)] = factory.create(alliance, position, false);
+            }
+        }
+        return pieces;
+    }
 
+    protected interface PieceFactory<T extends Piece> {
+        T create(Alliance alliance, int position, boolean isFirstMove);
     }
 
     /* Nested enum */
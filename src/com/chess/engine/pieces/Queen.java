@@ -1,75 +1,38 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public class Queen extends Piece {
-    // combination of both rook and bishop
-    private static final int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-9, -8, -7, -1, 1, 7, 8, 9};
+    private static final Queen[] QUEEN_CACHE = createAllPossiblePieces(new Queen[CACHE_SIZE], Queen::new);
 
-    public Queen(Alliance pieceAlliance, int piecePosition) {
-        super(pieceAlliance, piecePosition, PieceType.QUEEN, true);
-    }
-    public Queen(Alliance pieceAlliance, int piecePosition, boolean isFirstMove) {
+    private Queen(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
         super(pieceAlliance, piecePosition, PieceType.QUEEN, isFirstMove);
     }
 
+    public static Queen createQueen(final Alliance pieceAlliance, final int piecePosition) {
+        return createQueen(pieceAlliance, piecePosition, true);
+    }
 
+    public static Queen createQueen(final Alliance pieceAlliance, final int piecePosition, final boolean isFirstMove) {
+        return QUEEN_CACHE[cacheIndex(pieceAlliance, piecePosition, isFirstMove)];
+    }
 
     @Override
     public Collection<Move> calculateLegalMoves(Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int candidateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-            int candidateDestinationCoordinate = this.piecePosition;
-
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, candidateOffset)
-                        || isEighthColumnExclusion(candidateDestinationCoordinate, candidateOffset)
-                ) {
-                    break;
-                }
-
-                    candidateDestinationCoordinate += candidateOffset;
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        legalMoves.add(new Move.NormalMove(board, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance alliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != alliance) {
-                            legalMoves.add(new Move.CapturingMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break; // piece is blocking Queen, no need to consider diagonal further
-                    }
-                }
-            }
-        }
-
-        return legalMoves;
+        // magic bitboard lookup of every tile reachable along the ranks, files and diagonals,
+        // stopping at the first blocker in each direction
+        final long attacks = BitBoardUtils.queenAttacks(this.piecePosition, board.getBitBoard().getOccupied());
+        return calculateMovesFromAttacks(board, attacks);
     }
 
-
     @Override
     public Queen movePiece(final Move move) {
-        return new Queen(move.getPieceToBeMoved().getPieceAlliance(), move.getDestinationCoordinate());
-    }
-
-    // combination of both rook and bishop
-    private static boolean isFirstColumnExclusion(int currentPosition, int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == 7 || candidateOffset == -1);
-    }
-
-    private static boolean isEighthColumnExclusion(int currentPosition, int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 || candidateOffset == 9 || candidateOffset == 1);
+        return createQueen(move.getPieceToBeMoved().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
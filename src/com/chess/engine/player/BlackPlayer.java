@@ -1,6 +1,7 @@
 package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.CastleMove;
@@ -9,45 +10,52 @@ import com.chess.engine.board.Move.QueensideCastleMove;
 import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.Rook;
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import static com.chess.engine.board.BitBoardUtils.squareBit;
+
 public class BlackPlayer extends Player {
-    public BlackPlayer(Board board, Collection<Move> whiteStandardLegalMoves, Collection<Move> blackStandardLegalMoves) {
-        super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
+    // tiles between king and rook that must be empty to castle
+    private static final long KING_SIDE_CASTLE_PATH = squareBit(5) | squareBit(6);
+    private static final long QUEEN_SIDE_CASTLE_PATH = squareBit(1) | squareBit(2) | squareBit(3);
+
+    public BlackPlayer(final Board board, final Supplier<Collection<Move>> blackStandardLegalMoves) {
+        super(board, blackStandardLegalMoves);
     }
 
     @Override
-    public Collection<CastleMove> calculateCastleMoves(
-            Collection<Move> playerLegalMoves, Collection<Move> opponentLegalMoves) {
+    public Collection<CastleMove> calculateCastleMoves() {
         final List<Move.CastleMove> castleMoves = new ArrayList<>();
 
         if (this.playerKing.isFirstMove() && !this.isInCheck()) {
+            final BitBoard bitBoard = this.board.getBitBoard();
+            final long occupied = bitBoard.getOccupied();
             // kingside castle, no pieces in between king and rook
-            if (!this.board.getTile(5).isTileOccupied() && !this.board.getTile(6).isTileOccupied()) {
+            if ((occupied & KING_SIDE_CASTLE_PATH) == 0) {
                 final Tile rookTile = this.board.getTile(7);
                 // rook has not moved
-                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
+                if (isCastleRook(rookTile)) {
                     // does not pass through check
-                    if (Player.calculateAttacksOnTile(5, opponentLegalMoves).isEmpty()
-                            && Player.calculateAttacksOnTile(6, opponentLegalMoves).isEmpty()) {
+                    if (!bitBoard.isSquareAttacked(5, Alliance.WHITE)
+                            && !bitBoard.isSquareAttacked(6, Alliance.WHITE)) {
                         castleMoves.add(new KingsideCastleMove(
                                 this.board, this.playerKing, 6,
                                 (Rook) rookTile.getPiece(), rookTile.getTileCoordinate(), 5));
                     }
                 }
-                // queenside castle
-            } else if (!this.board.getTile(1).isTileOccupied() &&
-                    !this.board.getTile(2).isTileOccupied() &&
-                    !this.board.getTile(3).isTileOccupied()) {
+            }
+            // queenside castle
+            if ((occupied & QUEEN_SIDE_CASTLE_PATH) == 0) {
                 final Tile rookTile = this.board.getTile(0);
-                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
+                if (isCastleRook(rookTile)) {
                     // check that king does not pass through check
-                    if (Player.calculateAttacksOnTile(2, opponentLegalMoves).isEmpty()
-                            && Player.calculateAttacksOnTile(3, opponentLegalMoves).isEmpty()) {
+                    if (!bitBoard.isSquareAttacked(2, Alliance.WHITE)
+                            && !bitBoard.isSquareAttacked(3, Alliance.WHITE)) {
 
                         castleMoves.add(new QueensideCastleMove(
                                 this.board, this.playerKing, 2,
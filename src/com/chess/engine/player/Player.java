@@ -1,54 +1,54 @@
 package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.CastleMove;
+import com.chess.engine.board.Move.PawnEnPassantMove;
+import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public abstract class Player {
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
+    // worked out on first use, see Board
+    private final Supplier<Collection<Move>> legalMoves;
+    // enemy pieces giving check and own pieces pinned to the king, as bitboards
+    private final Supplier<Long> checkers;
+    private final Supplier<Long> pinnedPieces;
+    // whether any move keeps the king safe, decides both checkmate and stalemate
+    private final Supplier<Boolean> hasEscapeMoves;
 
     public Player(final Board board,
-                  final Collection<Move> legalMoves,
-                  final Collection<Move> opponentLegalMoves) {
+                  final Supplier<Collection<Move>> standardLegalMoves) {
 
         this.board = board;
         this.playerKing = establishKing();
+        this.checkers = Suppliers.memoize(() -> board.getBitBoard().calculateCheckers(getAlliance()));
+        this.pinnedPieces = Suppliers.memoize(() -> board.getBitBoard().calculatePinnedPieces(getAlliance()));
         // legal moves + castle moves
-        this.legalMoves = ImmutableList.copyOf(
-                Iterables.concat(legalMoves, calculateCastleMoves(legalMoves, opponentLegalMoves)));
-        this.isInCheck = !Player
-                .calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentLegalMoves)
-                .isEmpty();
-    }
-
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for (final Move move : moves) {
-            if (piecePosition == move.getDestinationCoordinate()) {
-                attackMoves.add(move);
-            }
-        }
-        return ImmutableList.copyOf(attackMoves);
+        this.legalMoves = Suppliers.memoize(() -> ImmutableList.copyOf(
+                Iterables.concat(standardLegalMoves.get(), calculateCastleMoves())));
+        this.hasEscapeMoves = Suppliers.memoize(this::calculateHasEscapeMoves);
     }
 
     // protected allows for access by subclass in all packages & all files in same package
     // default allows only for files in same package
     protected boolean hasEscapeMoves() {
-        for (final Move move : this.legalMoves) {
-            final MoveTransition transition = makeMove(move);
-            if (transition.getMoveStatus().isDone()) {
+        return this.hasEscapeMoves.get();
+    }
+
+    private boolean calculateHasEscapeMoves() {
+        for (final Move move : getLegalMoves()) {
+            if (!leavesPlayerInCheck(move)) {
                 return true;
             }
         }
@@ -56,19 +56,19 @@ public abstract class Player {
     }
 
     public boolean isMoveLegal(final Move move) {
-        return this.legalMoves.contains(move);
+        return getLegalMoves().contains(move);
     }
 
     public boolean isInCheck() {
-        return this.isInCheck;
+        return this.checkers.get() != BitBoardUtils.EMPTY;
     }
 
     public boolean isCheckmated() {
-        return this.isInCheck && !hasEscapeMoves();
+        return isInCheck() && !hasEscapeMoves();
     }
 
     public boolean isStalemated() {
-        return !this.isInCheck && !hasEscapeMoves();
+        return !isInCheck() && !hasEscapeMoves();
     }
 
     public boolean isCastled() {
@@ -79,38 +79,42 @@ public abstract class Player {
         if (!isMoveLegal(move)) {
             return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
         }
-        // we make a move here to produce a transition board, assume it's a white move
-        // a transition board is a possibly valid board that reflects the move that has been made
-        final Board transitionBoard = move.execute();
-        final int opponentKingPosition = transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition();
-        final Collection<Move> playerLegalMoves = transitionBoard.currentPlayer().getLegalMoves();
-
-        // hence, here we are seeing from the black POV
-        // since white has already made a move, we check all of black's moves, and see if any move attacks the white king
-        final Collection<Move> attacksOnPlayerKing = Player.calculateAttacksOnTile(opponentKingPosition, playerLegalMoves);
-
-        if (!attacksOnPlayerKing.isEmpty()) {
+        // the king's safety is read off the attack maps of the current board,
+        // a transition board is only built once the move is known to be legal
+        if (leavesPlayerInCheck(move)) {
             return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
         }
 
-        return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+        return new MoveTransition(move.execute(), move, MoveStatus.DONE);
+    }
+
+    private boolean leavesPlayerInCheck(final Move move) {
+        return !this.board.getBitBoard().isLegalMove(getAlliance(),
+                move.getCurrCoordinate(), move.getDestinationCoordinate(),
+                move instanceof PawnEnPassantMove, this.pinnedPieces.get(), this.checkers.get());
+    }
+
+    // castling partner: one of our own rooks that has not moved yet
+    protected boolean isCastleRook(final Tile rookTile) {
+        final Piece rook = rookTile.getPiece();
+        return rook != null
+                && rook.getPieceType() == Piece.PieceType.ROOK
+                && rook.getPieceAlliance() == getAlliance()
+                && rook.isFirstMove();
     }
 
     public abstract Collection<Piece> getActivePieces();
     public abstract Alliance getAlliance();
     public abstract Player getOpponent();
-    public abstract Collection<CastleMove> calculateCastleMoves(
-            Collection<Move> playerLegalMoves,
-            Collection<Move> opponentLegalMoves);
+    public abstract Collection<CastleMove> calculateCastleMoves();
 
 
     private King establishKing() {
-        for (final Piece piece : getActivePieces()) {
-            if (piece.getPieceType().isKing()) {
-                return (King) piece;
-            }
+        final long king = this.board.getBitBoard().getPieces(getAlliance(), Piece.PieceType.KING);
+        if (king == BitBoardUtils.EMPTY) {
+            throw new RuntimeException("Invalid board. King does not exist");
         }
-        throw new RuntimeException("Invalid board. King does not exist");
+        return (King) this.board.getTile(Long.numberOfTrailingZeros(king)).getPiece();
     }
 
     public King getPlayerKing() {
@@ -118,6 +122,6 @@ public abstract class Player {
     }
 
     public Collection<Move> getLegalMoves() {
-        return legalMoves;
+        return this.legalMoves.get();
     }
 }
\ No newline at end of file
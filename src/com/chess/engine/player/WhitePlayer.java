@@ -1,6 +1,7 @@
 package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.CastleMove;
@@ -9,46 +10,53 @@ import com.chess.engine.board.Move.QueensideCastleMove;
 import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.Rook;
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import static com.chess.engine.board.BitBoardUtils.squareBit;
+
 public class WhitePlayer extends Player {
-    public WhitePlayer(Board board, Collection<Move> whiteStandardLegalMoves, Collection<Move> blackStandardLegalMoves) {
-        super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+    // tiles between king and rook that must be empty to castle
+    private static final long KING_SIDE_CASTLE_PATH = squareBit(61) | squareBit(62);
+    private static final long QUEEN_SIDE_CASTLE_PATH = squareBit(57) | squareBit(58) | squareBit(59);
+
+    public WhitePlayer(final Board board, final Supplier<Collection<Move>> whiteStandardLegalMoves) {
+        super(board, whiteStandardLegalMoves);
     }
 
     @Override
-    public Collection<CastleMove> calculateCastleMoves(
-            Collection<Move> playerLegalMoves, Collection<Move> opponentLegalMoves) {
+    public Collection<CastleMove> calculateCastleMoves() {
         final List<CastleMove> castleMoves = new ArrayList<>();
 
         if (this.playerKing.isFirstMove() && !this.isInCheck()) {
+            final BitBoard bitBoard = this.board.getBitBoard();
+            final long occupied = bitBoard.getOccupied();
             // kingside castle, no pieces in between king and rook
-            if (!this.board.getTile(61).isTileOccupied() && !this.board.getTile(62).isTileOccupied()) {
+            if ((occupied & KING_SIDE_CASTLE_PATH) == 0) {
                 final Tile rookTile = this.board.getTile(63);
                 // rook has not moved
-                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
+                if (isCastleRook(rookTile)) {
                     // does not pass through check
-                    if (Player.calculateAttacksOnTile(61, opponentLegalMoves).isEmpty()
-                            && Player.calculateAttacksOnTile(62, opponentLegalMoves).isEmpty()) {
+                    if (!bitBoard.isSquareAttacked(61, Alliance.BLACK)
+                            && !bitBoard.isSquareAttacked(62, Alliance.BLACK)) {
                         castleMoves.add(
                                 new KingsideCastleMove(
                                         this.board, this.playerKing, 62,
                                         (Rook) rookTile.getPiece(), rookTile.getTileCoordinate(), 61));
                     }
                 }
+            }
             // queenside castle
-            } else if (!this.board.getTile(57).isTileOccupied() &&
-                        !this.board.getTile(58).isTileOccupied() &&
-                        !this.board.getTile(59).isTileOccupied()) {
+            if ((occupied & QUEEN_SIDE_CASTLE_PATH) == 0) {
                 final Tile rookTile = this.board.getTile(56);
-                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
+                if (isCastleRook(rookTile)) {
                     // check that king does not pass through check
-                    if (Player.calculateAttacksOnTile(58, opponentLegalMoves).isEmpty() &&
-                            Player.calculateAttacksOnTile(59, opponentLegalMoves).isEmpty())
+                    if (!bitBoard.isSquareAttacked(58, Alliance.BLACK) &&
+                            !bitBoard.isSquareAttacked(59, Alliance.BLACK))
                     castleMoves.add(
                             new QueensideCastleMove(
                                     this.board, this.playerKing, 58,
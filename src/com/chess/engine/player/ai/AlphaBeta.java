@@ -0,0 +1,611 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Alpha-beta search in negamax form: every node scores the position for the side to move, so one
+// method replaces MiniMax's min and max. Bounds are fail-soft, a node returns its best score even
+// when it lies outside the window. Results are kept in a transposition table, so positions reached
+// by different move orders are searched once. At the horizon a quiescence search plays out the
+// captures and promotions so that no position is scored in the middle of an exchange.
+//
+// Principal variation search: only the first move of a node gets the full window, the others are
+// searched with a null window to prove they are no better and re-searched only if that fails.
+// Each iteration starts with an aspiration window around the score of the previous one, widened
+// when the score falls outside it.
+//
+// Away from the principal variation the tree is pruned selectively: a null move that hands the
+// opponent a free move and still fails high cuts the node off, and quiet moves late in the list are
+// searched to a reduced depth first, in full only if they turn out better than expected.
+//
+// A position that repeats one reached earlier on the line, or one the game has been in twice before,
+// is scored as a draw without searching it, as is one past the fifty-move limit.
+//
+// All of this depends on searching the best move first, see MoveOrdering.
+public class AlphaBeta implements TimedMoveStrategy {
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int DRAW_SCORE = 0;
+    // deepest iteration a timed search will start
+    static final int MAX_DEPTH = 64;
+    // deepest line searched including quiescence, past it positions are evaluated as they are
+    private static final int MAX_PLY = 128;
+    // a capture that can't lift the score to alpha even with this much to spare isn't searched
+    private static final int DELTA_MARGIN = 200;
+    // the clock is read once every 1024 nodes
+    private static final int TIME_CHECK_MASK = 1023;
+    private static final int DEFAULT_TABLE_SIZE_MB = 16;
+    // half the width of the first aspiration window, doubled on every failure
+    static final int ASPIRATION_WINDOW = 50;
+    // past this the window is opened up completely
+    private static final int MAX_ASPIRATION_WINDOW = 1600;
+    // scores this far from zero mean a checkmate was found, see StandardBoardEvaluator#kingThreats
+    static final int MATE_THRESHOLD = 9000;
+    // the least depth a null move is tried at, and how much shallower its search is
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_REDUCTION = 2;
+    private static final int DEEP_NULL_MOVE_REDUCTION = 3;
+    private static final int DEEP_NULL_MOVE_DEPTH = 7;
+    // moves searched at full depth before reductions start, and the least depth they apply at
+    private static final int LMR_FULL_DEPTH_MOVES = 3;
+    private static final int LMR_MIN_DEPTH = 3;
+    // moves this late get reduced by two plies instead of one
+    private static final int LMR_DEEP_MOVES = 8;
+
+    private final BoardEvaluator boardEvaluator;
+    private final TranspositionTable transpositionTable;
+    private long boardsEvaluated;
+    private long nodesSearched;
+    private final MoveOrdering moveOrdering = new MoveOrdering(MAX_PLY);
+    // one per ply, each picks from its own MAX_MOVES entries of a buffer shared by all plies
+    private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+    // quiet moves searched at each ply without a cutoff, they lose history when a later one cuts off
+    private final int[] triedQuiets = new int[MAX_PLY * SearchBoard.MAX_MOVES];
+    private final SearchStatistics statistics = new SearchStatistics();
+    private TimeManager timeManager;
+    // raised from outside to end the search, shared by all threads of a parallel search
+    private final AtomicBoolean stopSignal;
+    // set when the hard time limit or the stop signal cuts an iteration short, its results are thrown away
+    private boolean stopped;
+    private int completedDepth;
+    // triangular table of principal variations: row ply holds the best line found from that ply on,
+    // in entries ply to pvLength[ply] - 1
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private SearchResult searchResult;
+    // root moves searched for a line of their own, see setMultiPv
+    private int multiPv = 1;
+    private List<SearchResult> searchResults = ImmutableList.of();
+    // zobrist keys of the game's positions before the root, see setGameHistory
+    private long[] gameHistory = new long[0];
+
+    public AlphaBeta() {
+        this(new TranspositionTable(DEFAULT_TABLE_SIZE_MB));
+    }
+
+    // the table can be shared between searches of the same game, or between search threads
+    public AlphaBeta(final TranspositionTable transpositionTable) {
+        this(transpositionTable, new AtomicBoolean());
+    }
+
+    AlphaBeta(final TranspositionTable transpositionTable, final AtomicBoolean stopSignal) {
+        this.boardEvaluator = StandardBoardEvaluator.get();
+        this.transpositionTable = transpositionTable;
+        this.stopSignal = stopSignal;
+        final int[] moveBuffer = new int[MAX_PLY * SearchBoard.MAX_MOVES];
+        final int[] moveScores = new int[MAX_PLY * SearchBoard.MAX_MOVES];
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            this.movePickers[ply] = new MovePicker(moveBuffer, moveScores, ply * SearchBoard.MAX_MOVES);
+        }
+    }
+
+    @Override
+    public Move execute(final Board board, final int depth) {
+        startSearch();
+        return search(board, depth, depth, TimeManager.infinite());
+    }
+
+    // iterative deepening: searches to depth 1, 2, 3... until the soft time limit has passed and
+    // plays the best move of the deepest iteration that finished
+    @Override
+    public Move execute(final Board board, final TimeManager timeManager) {
+        startSearch();
+        return search(board, 1, MAX_DEPTH, timeManager);
+    }
+
+    // may be called from any thread, the search ends as if the hard time limit had been reached
+    public void stop() {
+        this.stopSignal.set(true);
+    }
+
+    private void startSearch() {
+        this.stopSignal.set(false);
+        this.transpositionTable.newSearch();
+    }
+
+    @Override
+    public SearchResult getSearchResult() {
+        return this.searchResult;
+    }
+
+    // one line per root move asked for with setMultiPv, best first
+    public List<SearchResult> getSearchResults() {
+        return this.searchResults;
+    }
+
+    // Multi-PV analysis: every iteration searches the root numLines times, each time leaving out the
+    // moves of the lines found before, so that the best numLines moves all get an exact score and a
+    // principal variation. The passes share the table, later ones find most of their positions in it
+    public void setMultiPv(final int numLines) {
+        if (numLines < 1) {
+            throw new RuntimeException("Need at least one line, not " + numLines);
+        }
+        this.multiPv = numLines;
+    }
+
+    public int getMultiPv() {
+        return this.multiPv;
+    }
+
+    @Override
+    public void setGameHistory(final List<Move> moves) {
+        this.gameHistory = SearchBoard.historyKeys(moves);
+    }
+
+    // shared by the threads of a parallel search, the keys are never written to
+    void setGameHistory(final long[] gameHistory) {
+        this.gameHistory = gameHistory;
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated;
+    }
+
+    public long getNumNodesSearched() {
+        return this.nodesSearched;
+    }
+
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    public SearchStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    @Override
+    public String toString() {
+        return "AlphaBeta";
+    }
+
+    // searches iterations firstDepth to lastDepth; the caller resets the stop signal and ages the table
+    Move search(final Board board,
+                        final int firstDepth,
+                        final int lastDepth,
+                        final TimeManager timeManager) {
+        this.timeManager = timeManager;
+        this.timeManager.start();
+        this.boardsEvaluated = 0;
+        this.nodesSearched = 0;
+        this.stopped = false;
+        this.completedDepth = 0;
+        this.moveOrdering.newSearch();
+        this.statistics.reset();
+        final SearchBoard searchBoard = new SearchBoard(board, this.gameHistory);
+
+        // the lines of the last completed iteration, best first
+        final int numLines = Math.min(this.multiPv, searchBoard.generateLegalMoves(new int[SearchBoard.MAX_MOVES], 0));
+        final int[] lineMoves = new int[numLines];
+        final int[] lineScores = new int[numLines];
+        final int[][] lineVariations = new int[numLines][MAX_PLY];
+        final int[] lineLengths = new int[numLines];
+        // the lines of the iteration in progress, in the order they are found
+        final int[] iterationMoves = new int[numLines];
+        final int[] iterationScores = new int[numLines];
+        final int[][] iterationVariations = new int[numLines][MAX_PLY];
+        final int[] iterationLengths = new int[numLines];
+        for (int depth = firstDepth; depth <= lastDepth && numLines > 0; depth++) {
+            // each line is the best of the root moves the lines before it left
+            for (int line = 0; line < numLines && !this.stopped; line++) {
+                final boolean hasPrevious = this.completedDepth > 0;
+                final int value = aspirationSearch(searchBoard, depth,
+                        hasPrevious ? lineMoves[line] : PackedMove.NULL_MOVE,
+                        hasPrevious ? lineScores[line] : 0,
+                        iterationMoves, line);
+                if (this.stopped) {
+                    break;
+                }
+                iterationScores[line] = value;
+                iterationLengths[line] = this.pvLength[0];
+                System.arraycopy(this.pvTable[0], 0, iterationVariations[line], 0, this.pvLength[0]);
+                iterationMoves[line] = this.pvLength[0] > 0 ? this.pvTable[0][0] : PackedMove.NULL_MOVE;
+            }
+            if (this.stopped) {
+                break;
+            }
+            // a later line can come out better than an earlier one when it finds what the table hid
+            for (int i = 0; i < numLines; i++) {
+                int best = i;
+                for (int j = i + 1; j < numLines; j++) {
+                    if (iterationScores[j] > iterationScores[best]) {
+                        best = j;
+                    }
+                }
+                lineMoves[i] = iterationMoves[best];
+                lineScores[i] = iterationScores[best];
+                lineLengths[i] = iterationLengths[best];
+                System.arraycopy(iterationVariations[best], 0, lineVariations[i], 0, iterationLengths[best]);
+                iterationMoves[best] = iterationMoves[i];
+                iterationScores[best] = iterationScores[i];
+                iterationLengths[best] = iterationLengths[i];
+                System.arraycopy(iterationVariations[i], 0, iterationVariations[best], 0, iterationLengths[i]);
+            }
+            this.completedDepth = depth;
+            // not enough time left to make a deeper iteration worth starting
+            if (this.timeManager.isSoftLimitReached() || this.stopSignal.get()) {
+                break;
+            }
+        }
+
+        final ImmutableList.Builder<SearchResult> searchResults = ImmutableList.builder();
+        for (int line = 0; line < numLines; line++) {
+            searchResults.add(new SearchResult(PackedMove.toMove(board, lineMoves[line]), lineScores[line],
+                    this.completedDepth, SearchResult.toMoves(board, lineVariations[line], lineLengths[line]),
+                    this.nodesSearched, this.timeManager.elapsedMillis()));
+        }
+        this.searchResults = searchResults.build();
+        // no legal moves
+        this.searchResult = numLines > 0
+                ? this.searchResults.get(0)
+                : new SearchResult(null, 0, this.completedDepth, ImmutableList.of(),
+                        this.nodesSearched, this.timeManager.elapsedMillis());
+        return this.searchResult.getBestMove();
+    }
+
+    // searches the root with a window around the score of the previous iteration, widened when the
+    // score falls outside it
+    private int aspirationSearch(final SearchBoard board,
+                                 final int depth,
+                                 final int previousMove,
+                                 final int previousScore,
+                                 final int[] excludedMoves,
+                                 final int numExcluded) {
+        int delta = ASPIRATION_WINDOW;
+        int alpha = this.completedDepth > 0 ? window(previousScore, -delta) : -INFINITY;
+        int beta = this.completedDepth > 0 ? window(previousScore, delta) : INFINITY;
+        while (true) {
+            final int value = searchRoot(board, depth, previousMove, excludedMoves, numExcluded, alpha, beta);
+            if (this.stopped) {
+                return value;
+            }
+            delta *= 2;
+            if (value <= alpha && alpha > -INFINITY) {
+                alpha = delta > MAX_ASPIRATION_WINDOW ? -INFINITY : window(value, -delta);
+            } else if (value >= beta && beta < INFINITY) {
+                beta = delta > MAX_ASPIRATION_WINDOW ? INFINITY : window(value, delta);
+            } else {
+                return value;
+            }
+        }
+    }
+
+    // score moved by delta, kept inside the widest window
+    private static int window(final int score, final int delta) {
+        return (int) Math.max(-INFINITY, Math.min(INFINITY, (long) score + delta));
+    }
+
+    // searches every root move but the excluded ones, the best is left at the start of the root's row
+    // of the PV table
+    private int searchRoot(final SearchBoard board,
+                           final int depth,
+                           final int previousBestMove,
+                           final int[] excludedMoves,
+                           final int numExcluded,
+                           int alpha,
+                           final int beta) {
+        this.pvLength[0] = 0;
+        // the previous iteration's choice is the most likely best, searching it first narrows the window,
+        // failing that the table may remember the position from an earlier search
+        final int firstMove = previousBestMove != PackedMove.NULL_MOVE
+                ? previousBestMove
+                : TranspositionTable.getMove(this.transpositionTable.probe(board.getZobristKey()));
+        final MovePicker picker = this.movePickers[0];
+        picker.init(board, this.moveOrdering, firstMove, 0);
+
+        final int originalAlpha = alpha;
+        int bestValue = -INFINITY;
+        int bestMove = PackedMove.NULL_MOVE;
+        int moveNumber = 0;
+        for (int move = picker.next(); move != PackedMove.NULL_MOVE; move = picker.next()) {
+            if (isExcluded(move, excludedMoves, numExcluded)) {
+                continue;
+            }
+            board.makeMove(move);
+            final int currentValue = searchChild(board, depth, alpha, beta, moveNumber == 0, 0);
+            board.unmakeMove();
+            moveNumber++;
+            if (this.stopped) {
+                return 0;
+            }
+            // strictly better only, ties keep the earlier move as MiniMax does
+            if (currentValue > bestValue) {
+                bestValue = currentValue;
+                bestMove = move;
+                updatePrincipalVariation(0, move);
+                if (currentValue > alpha) {
+                    alpha = currentValue;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        // with moves left out the result isn't the position's
+        if (bestMove != PackedMove.NULL_MOVE && numExcluded == 0) {
+            this.transpositionTable.store(board.getZobristKey(), PackedMove.compact(bestMove),
+                    bestValue, depth, bound(bestValue, originalAlpha, beta));
+        }
+        return bestValue;
+    }
+
+    private static boolean isExcluded(final int move, final int[] excludedMoves, final int numExcluded) {
+        for (int i = 0; i < numExcluded; i++) {
+            if (excludedMoves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the score of the move just made: the first move of a node gets the full window, the rest a null
+    // window that only tells whether they beat alpha, with a full re-search if they do. A reduced
+    // move that beats alpha is searched again at full depth before that
+    private int searchChild(final SearchBoard board, final int depth, final int alpha, final int beta,
+                            final boolean isFirstMove, final int reduction) {
+        if (isFirstMove) {
+            return -alphaBeta(board, depth - 1, -beta, -alpha);
+        }
+        if (reduction > 0) {
+            final int value = -alphaBeta(board, depth - 1 - reduction, -alpha - 1, -alpha);
+            if (value <= alpha || this.stopped) {
+                return value;
+            }
+        }
+        final int value = -alphaBeta(board, depth - 1, -alpha - 1, -alpha);
+        return value > alpha && value < beta && !this.stopped
+                ? -alphaBeta(board, depth - 1, -beta, -alpha)
+                : value;
+    }
+
+    // late move reductions: quiet moves far down the list rarely turn out best, they are searched
+    // shallower first. Never for captures, promotions, check evasions or moves that give check.
+    // Called with the move made
+    private static int lateMoveReduction(final SearchBoard board, final int depth, final int moveNumber,
+                                         final int move, final boolean inCheck) {
+        if (moveNumber < LMR_FULL_DEPTH_MOVES
+                || depth < LMR_MIN_DEPTH
+                || inCheck
+                || PackedMove.isCapture(move)
+                || PackedMove.isPromotion(move)
+                || board.isInCheck(board.getSideToMove())) {
+            return 0;
+        }
+        return moveNumber >= LMR_DEEP_MOVES && depth > LMR_MIN_DEPTH ? 2 : 1;
+    }
+
+    private static int bound(final int value, final int alpha, final int beta) {
+        return value >= beta
+                ? TranspositionTable.LOWER_BOUND
+                : value > alpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+    }
+
+    // the line below ply becomes move followed by the best line found from the next ply on
+    private void updatePrincipalVariation(final int ply, final int move) {
+        final int[] line = this.pvTable[ply];
+        line[ply] = move;
+        final int childLength = this.pvLength[ply + 1];
+        for (int i = ply + 1; i < childLength; i++) {
+            line[i] = this.pvTable[ply + 1][i];
+        }
+        this.pvLength[ply] = Math.max(ply + 1, childLength);
+    }
+
+    private int alphaBeta(final SearchBoard board, final int depth, int alpha, final int beta) {
+        final int ply = board.getPly();
+        // whatever follows, the line is drawn: nothing below a repetition needs searching
+        if (board.isDraw()) {
+            this.pvLength[ply] = ply;
+            return DRAW_SCORE;
+        }
+        if (depth <= 0) {
+            return quiescence(board, alpha, beta);
+        }
+        this.pvLength[ply] = ply;
+        if (shouldStop()) {
+            return 0;
+        }
+        this.statistics.countNode();
+
+        // a result at least as deep as this one ends the search here if its bound says enough,
+        // except on the principal variation, which is searched out so that the whole line is known.
+        // The width of the full window, -INFINITY to INFINITY, overflows an int
+        final boolean isPrincipalVariation = (long) beta - alpha > 1;
+        final long key = board.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        if (!isPrincipalVariation
+                && entry != TranspositionTable.NO_ENTRY
+                && TranspositionTable.getDepth(entry) >= depth) {
+            final int score = TranspositionTable.getScore(entry);
+            final int bound = TranspositionTable.getBound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                this.statistics.countTranspositionCutoff();
+                return score;
+            }
+        }
+
+        // null move pruning: if passing still fails high, a real move would too. Not in check, where
+        // passing is illegal, not twice in a row, and not with only king and pawns, where zugzwang
+        // positions make passing better than any move
+        final Alliance sideToMove = board.getSideToMove();
+        final boolean inCheck = board.isInCheck(sideToMove);
+        if (!isPrincipalVariation
+                && !inCheck
+                && depth >= NULL_MOVE_MIN_DEPTH
+                && board.getLastMove() != PackedMove.NULL_MOVE
+                && Math.abs(beta) < MATE_THRESHOLD
+                && board.hasNonPawnMaterial(sideToMove)) {
+            final int reduction = depth >= DEEP_NULL_MOVE_DEPTH ? DEEP_NULL_MOVE_REDUCTION : NULL_MOVE_REDUCTION;
+            board.makeNullMove();
+            final int value = -alphaBeta(board, depth - 1 - reduction, -beta, -beta + 1);
+            board.unmakeNullMove();
+            if (this.stopped) {
+                return 0;
+            }
+            if (value >= beta) {
+                // a mate found after passing proves nothing about the real moves
+                return value >= MATE_THRESHOLD ? beta : value;
+            }
+        }
+
+        final int hashMove = TranspositionTable.getMove(entry);
+        final MovePicker picker = this.movePickers[ply];
+        picker.init(board, this.moveOrdering, hashMove, ply);
+
+        final int originalAlpha = alpha;
+        final int quietsStart = ply * SearchBoard.MAX_MOVES;
+        int quietsEnd = quietsStart;
+        int bestValue = -INFINITY;
+        int bestMove = PackedMove.NULL_MOVE;
+        int moveNumber = 0;
+        for (int move = picker.next(); move != PackedMove.NULL_MOVE; move = picker.next()) {
+            board.makeMove(move);
+            final int reduction = lateMoveReduction(board, depth, moveNumber, move, inCheck);
+            final int currentValue = searchChild(board, depth, alpha, beta, moveNumber == 0, reduction);
+            board.unmakeMove();
+            moveNumber++;
+            if (this.stopped) {
+                return 0;
+            }
+            if (currentValue > bestValue) {
+                bestValue = currentValue;
+                if (currentValue > alpha) {
+                    alpha = currentValue;
+                    bestMove = move;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        this.statistics.countCutoff(moveNumber - 1,
+                                PackedMove.compact(move) == PackedMove.compact(hashMove));
+                        this.moveOrdering.updateCutoff(board, move, ply, depth,
+                                this.triedQuiets, quietsStart, quietsEnd);
+                        break;
+                    }
+                }
+            }
+            if (!PackedMove.isTactical(move)) {
+                this.triedQuiets[quietsEnd++] = move;
+            }
+        }
+        if (moveNumber == 0) {
+            // checkmate or stalemate, the evaluator tells them apart
+            return evaluate(board, depth);
+        }
+
+        // after failing low every move is only known to be no better than alpha, there is no best move
+        this.transpositionTable.store(key, PackedMove.compact(bestMove), bestValue, depth,
+                bound(bestValue, originalAlpha, beta));
+        return bestValue;
+    }
+
+    // Searches captures and promotions only. The side to move may stand pat on the static evaluation
+    // rather than capture, unless it is in check, when every evasion is searched. Captures that lose
+    // material once the recaptures are counted are skipped, as are captures that can't bring the
+    // score near alpha even if they win the piece for free (delta pruning).
+    private int quiescence(final SearchBoard board, int alpha, final int beta) {
+        final int ply = board.getPly();
+        // the principal variation ends at the horizon
+        this.pvLength[ply] = ply;
+        if (shouldStop()) {
+            return 0;
+        }
+        this.statistics.countQuiescenceNode();
+        if (ply >= MAX_PLY - 1) {
+            return evaluate(board, 0);
+        }
+        final boolean inCheck = board.isInCheck(board.getSideToMove());
+        int bestValue = -INFINITY;
+        if (!inCheck) {
+            bestValue = evaluate(board, 0);
+            if (bestValue >= beta) {
+                return bestValue;
+            }
+            if (bestValue > alpha) {
+                alpha = bestValue;
+            }
+        }
+        final int standPat = bestValue;
+
+        final MovePicker picker = this.movePickers[ply];
+        picker.initCaptures(board);
+        int moveNumber = 0;
+        for (int move = picker.next(); move != PackedMove.NULL_MOVE; move = picker.next()) {
+            moveNumber++;
+            if (!inCheck
+                    && !PackedMove.isPromotion(move)
+                    && (picker.getScore() < 0
+                    || standPat + PackedMove.getCapturedType(move).getPieceValue() + DELTA_MARGIN <= alpha)) {
+                continue;
+            }
+            board.makeMove(move);
+            final int currentValue = -quiescence(board, -beta, -alpha);
+            board.unmakeMove();
+            if (this.stopped) {
+                return 0;
+            }
+            if (currentValue > bestValue) {
+                bestValue = currentValue;
+                if (currentValue > alpha) {
+                    alpha = currentValue;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (inCheck && moveNumber == 0) {
+            // checkmate
+            return evaluate(board, 0);
+        }
+        return bestValue;
+    }
+
+    // counts the node and reads the clock and the stop signal now and then, the first iteration
+    // always finishes so that there is a move to play
+    private boolean shouldStop() {
+        if ((++this.nodesSearched & TIME_CHECK_MASK) == 0
+                && this.completedDepth > 0
+                && (this.stopSignal.get() || this.timeManager.isHardLimitReached())) {
+            this.stopped = true;
+        }
+        return this.stopped;
+    }
+
+    // the evaluator scores for white, negamax wants the score for the side to move
+    private int evaluate(final SearchBoard board, final int depth) {
+        this.boardsEvaluated++;
+        final int value = this.boardEvaluator.evaluate(board, depth);
+        return board.getSideToMove().isWhite() ? value : -value;
+    }
+}
@@ -0,0 +1,41 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+// Table entries in a long array on the Java heap, lost when the engine stops.
+public final class HeapTableStorage implements TableStorage {
+    private final long[] table;
+
+    public HeapTableStorage(final int numLongs) {
+        this.table = new long[numLongs];
+    }
+
+    @Override
+    public long size() {
+        return this.table.length;
+    }
+
+    @Override
+    public long get(final long index) {
+        return this.table[(int) index];
+    }
+
+    @Override
+    public void set(final long index, final long value) {
+        this.table[(int) index] = value;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+    }
+
+    @Override
+    public int loadAge() {
+        return 0;
+    }
+
+    @Override
+    public void flush(final int age) {
+    }
+}
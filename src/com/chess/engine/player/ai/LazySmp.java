@@ -0,0 +1,130 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Lazy SMP: several threads search the same position at the same time and share nothing but the
+// transposition table. Each thread walks its own copy of the board with its own move ordering tables,
+// the helpers find the results of the others in the table and so get further down the tree, and fill
+// it with results the main thread can use. Half the helpers search one ply deeper than the main
+// thread from the start so that the threads don't all search the same positions in lockstep.
+//
+// Only the main thread's iterations decide the move. Once it is done the helpers are stopped and
+// waited for, their unfinished iterations are thrown away.
+public class LazySmp implements TimedMoveStrategy {
+    private static final int DEFAULT_TABLE_SIZE_MB = 64;
+
+    private final TranspositionTable transpositionTable;
+    private final AtomicBoolean stopSignal = new AtomicBoolean();
+    // the main thread's search first
+    private final AlphaBeta[] searchers;
+    private long boardsEvaluated;
+    private SearchResult searchResult;
+
+    public LazySmp(final int numThreads) {
+        this(numThreads, new TranspositionTable(DEFAULT_TABLE_SIZE_MB));
+    }
+
+    public LazySmp(final int numThreads, final TranspositionTable transpositionTable) {
+        if (numThreads < 1) {
+            throw new RuntimeException("Need at least one search thread, not " + numThreads);
+        }
+        this.transpositionTable = transpositionTable;
+        this.searchers = new AlphaBeta[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            this.searchers[i] = new AlphaBeta(transpositionTable, this.stopSignal);
+        }
+    }
+
+    // iterative deepening up to depth, helpers need the earlier iterations to work with
+    @Override
+    public Move execute(final Board board, final int depth) {
+        return search(board, depth, TimeManager.infinite());
+    }
+
+    @Override
+    public Move execute(final Board board, final TimeManager timeManager) {
+        return search(board, AlphaBeta.MAX_DEPTH, timeManager);
+    }
+
+    @Override
+    public void setGameHistory(final List<Move> moves) {
+        final long[] gameHistory = SearchBoard.historyKeys(moves);
+        for (final AlphaBeta searcher : this.searchers) {
+            searcher.setGameHistory(gameHistory);
+        }
+    }
+
+    // may be called from any thread, every search thread ends as if the hard time limit had been reached
+    public void stop() {
+        this.stopSignal.set(true);
+    }
+
+    @Override
+    public SearchResult getSearchResult() {
+        return this.searchResult;
+    }
+
+    // by all threads
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated;
+    }
+
+    public int getNumThreads() {
+        return this.searchers.length;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    @Override
+    public String toString() {
+        return "LazySmp";
+    }
+
+    private Move search(final Board board, final int depth, final TimeManager timeManager) {
+        this.stopSignal.set(false);
+        this.transpositionTable.newSearch();
+
+        final Thread[] helpers = new Thread[this.searchers.length - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            final AlphaBeta helper = this.searchers[i + 1];
+            final int firstDepth = 1 + i % 2;
+            // helpers run until stopped, the main thread decides when the search is over
+            helpers[i] = new Thread(() -> helper.search(board, firstDepth, AlphaBeta.MAX_DEPTH,
+                    TimeManager.infinite()), "search-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+
+        final AlphaBeta main = this.searchers[0];
+        final Move move;
+        try {
+            move = main.search(board, 1, depth, timeManager);
+        } finally {
+            this.stopSignal.set(true);
+            for (final Thread helper : helpers) {
+                Uninterruptibles.joinUninterruptibly(helper);
+            }
+        }
+
+        this.boardsEvaluated = 0;
+        long nodesSearched = 0;
+        for (final AlphaBeta searcher : this.searchers) {
+            this.boardsEvaluated += searcher.getNumBoardsEvaluated();
+            nodesSearched += searcher.getNumNodesSearched();
+        }
+        final SearchResult mainResult = main.getSearchResult();
+        this.searchResult = new SearchResult(mainResult.getBestMove(), mainResult.getScore(),
+                mainResult.getDepth(), mainResult.getPrincipalVariation(), nodesSearched,
+                mainResult.getElapsedMillis());
+        return move;
+    }
+}
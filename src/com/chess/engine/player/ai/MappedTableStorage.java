@@ -0,0 +1,147 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Zobrist;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+// Table entries in a memory mapped file, outside the Java heap so that tables of many gigabytes
+// cost the garbage collector nothing, and kept by the file across engine restarts.
+//
+// The file starts with a header page:
+//
+//  bytes  0-7   MAGIC
+//  bytes  8-11  FORMAT_VERSION
+//  bytes 12-15  search age
+//  bytes 16-23  Zobrist#checksum of the keys the entries were stored under
+//  bytes 24-31  number of longs that follow the header
+//
+// A file whose header doesn't match this build, or the size asked for, is emptied and started over:
+// entries stored under other keys would be found for the wrong positions.
+public final class MappedTableStorage implements TableStorage {
+    private static final long MAGIC = 0x4D4E45545454424CL;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4096;
+
+    private static final int AGE_OFFSET = 12;
+    // a single mapping cannot be larger than 2GB, the file is mapped in 1GB chunks
+    private static final int CHUNK_SHIFT = 27;
+    private static final long CHUNK_LONGS = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_LONGS - 1;
+
+    private final Path file;
+    private final long numLongs;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] chunks;
+    private final boolean reopened;
+
+    private MappedTableStorage(final Path file,
+                               final long numLongs,
+                               final MappedByteBuffer header,
+                               final MappedByteBuffer[] chunks,
+                               final boolean reopened) {
+        this.file = file;
+        this.numLongs = numLongs;
+        this.header = header;
+        this.chunks = chunks;
+        this.reopened = reopened;
+    }
+
+    // maps the file, creating it if needed, and keeps its entries if it was written by a table of the same format and size
+    public static MappedTableStorage open(final Path file, final long numLongs) {
+        try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw");
+             final FileChannel channel = randomAccessFile.getChannel()) {
+            final long fileSize = HEADER_SIZE + numLongs * Long.BYTES;
+            final boolean reopened = randomAccessFile.length() == fileSize && isCompatible(channel, numLongs);
+            if (!reopened) {
+                // truncating first makes the file system hand back zeroed pages, ie empty entries
+                randomAccessFile.setLength(0);
+                randomAccessFile.setLength(fileSize);
+            }
+
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            final MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((numLongs + CHUNK_LONGS - 1) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                final long firstLong = (long) i << CHUNK_SHIFT;
+                final long chunkLongs = Math.min(CHUNK_LONGS, numLongs - firstLong);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        HEADER_SIZE + firstLong * Long.BYTES, chunkLongs * Long.BYTES);
+            }
+            if (!reopened) {
+                writeHeader(header, numLongs, 0);
+                header.force();
+            }
+            // the mappings stay valid after the channel is closed
+            return new MappedTableStorage(file, numLongs, header, chunks, reopened);
+        } catch (final IOException e) {
+            throw new RuntimeException("Cannot map transposition table file " + file, e);
+        }
+    }
+
+    private static boolean isCompatible(final FileChannel channel, final long numLongs) throws IOException {
+        final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        return header.getLong(0) == MAGIC
+                && header.getInt(8) == FORMAT_VERSION
+                && header.getLong(16) == Zobrist.checksum()
+                && header.getLong(24) == numLongs;
+    }
+
+    private static void writeHeader(final MappedByteBuffer header, final long numLongs, final int age) {
+        header.putLong(0, MAGIC);
+        header.putInt(8, FORMAT_VERSION);
+        header.putInt(AGE_OFFSET, age);
+        header.putLong(16, Zobrist.checksum());
+        header.putLong(24, numLongs);
+    }
+
+    // whether the entries of an earlier run were kept
+    public boolean isReopened() {
+        return this.reopened;
+    }
+
+    public Path getFile() {
+        return this.file;
+    }
+
+    @Override
+    public long size() {
+        return this.numLongs;
+    }
+
+    @Override
+    public long get(final long index) {
+        return this.chunks[(int) (index >>> CHUNK_SHIFT)].getLong((int) (index & CHUNK_MASK) << 3);
+    }
+
+    @Override
+    public void set(final long index, final long value) {
+        this.chunks[(int) (index >>> CHUNK_SHIFT)].putLong((int) (index & CHUNK_MASK) << 3, value);
+    }
+
+    @Override
+    public void clear() {
+        for (final MappedByteBuffer chunk : this.chunks) {
+            for (int offset = 0; offset < chunk.capacity(); offset += Long.BYTES) {
+                chunk.putLong(offset, 0L);
+            }
+        }
+    }
+
+    @Override
+    public int loadAge() {
+        return this.header.getInt(AGE_OFFSET);
+    }
+
+    // writes the dirty pages back to the file
+    @Override
+    public void flush(final int age) {
+        this.header.putInt(AGE_OFFSET, age);
+        for (final MappedByteBuffer chunk : this.chunks) {
+            chunk.force();
+        }
+        this.header.force();
+    }
+}
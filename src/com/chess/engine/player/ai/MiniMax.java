@@ -2,48 +2,87 @@ package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
-import com.chess.engine.player.MoveTransition;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
 import com.chess.engine.player.Player;
 
+import java.util.Collections;
+import java.util.List;
+
 public class MiniMax implements MoveStrategy {
     private final BoardEvaluator boardEvaluator;
+    private long boardsEvaluated;
+    private SearchResult searchResult;
+    // packed moves of every ply on the current line, each ply owns MAX_MOVES entries
+    private int[] moveBuffer;
+    // zobrist keys of the game's positions before the root, see setGameHistory
+    private long[] gameHistory = new long[0];
 
     public MiniMax() {
-        this.boardEvaluator = new StandardBoardEvaluator();
+        this.boardEvaluator = StandardBoardEvaluator.get();
     }
 
     @Override
     public Move execute(Board board, int depth) {
         final long startTime = System.currentTimeMillis();
+        this.boardsEvaluated = 0;
 
-        Move bestMove = null;
+        int bestMove = PackedMove.NULL_MOVE;
         int highestSeenValue = Integer.MIN_VALUE;
         int lowestSeenValue = Integer.MAX_VALUE;
         int currentValue;
         Player player = board.currentPlayer();
 
         System.out.println(player + "thinking with depth = " + depth);
-        int numMoves = player.getLegalMoves().size();
-
-        for (final Move move : player.getLegalMoves()) {
-            final MoveTransition moveTransition = player.makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                currentValue = player.getAlliance().isWhite() // means black made a move to form the transition board
-                        ? min(moveTransition.getTransitionBoard(), depth - 1)
-                        : max(moveTransition.getTransitionBoard(), depth - 1);
-
-                if (player.getAlliance().isWhite() && currentValue > highestSeenValue) {
-                    highestSeenValue = currentValue;
-                    bestMove = move;
-                } else if (player.getAlliance().isBlack() && currentValue < lowestSeenValue ) {
-                    lowestSeenValue = currentValue;
-                    bestMove = move;
-                }
+
+        // the tree is walked on a single mutable board, moves are made and taken back in place
+        final SearchBoard searchBoard = new SearchBoard(board, this.gameHistory);
+        this.moveBuffer = new int[(depth + 1) * SearchBoard.MAX_MOVES];
+        final int numMoves = searchBoard.generateLegalMoves(this.moveBuffer, depth * SearchBoard.MAX_MOVES);
+
+        for (int i = depth * SearchBoard.MAX_MOVES; i < numMoves; i++) {
+            final int move = this.moveBuffer[i];
+            searchBoard.makeMove(move);
+            currentValue = player.getAlliance().isWhite() // means black made a move to form the transition board
+                    ? min(searchBoard, depth - 1)
+                    : max(searchBoard, depth - 1);
+            searchBoard.unmakeMove();
+
+            if (player.getAlliance().isWhite() && currentValue > highestSeenValue) {
+                highestSeenValue = currentValue;
+                bestMove = move;
+            } else if (player.getAlliance().isBlack() && currentValue < lowestSeenValue ) {
+                lowestSeenValue = currentValue;
+                bestMove = move;
             }
         }
 
         final long executionTIme = System.currentTimeMillis() - startTime;
-        return bestMove;
+        // the GUI and MoveLog work with Move objects, so only the chosen move is converted back
+        final Move move = bestMove == PackedMove.NULL_MOVE ? null : PackedMove.toMove(board, bestMove);
+        // MiniMax doesn't keep the line below the root move
+        this.searchResult = new SearchResult(move,
+                player.getAlliance().isWhite() ? highestSeenValue : -lowestSeenValue,
+                depth,
+                move == null ? Collections.<Move>emptyList() : Collections.singletonList(move),
+                this.boardsEvaluated,
+                executionTIme);
+        return move;
+    }
+
+    @Override
+    public void setGameHistory(final List<Move> moves) {
+        this.gameHistory = SearchBoard.historyKeys(moves);
+    }
+
+    @Override
+    public SearchResult getSearchResult() {
+        return this.searchResult;
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated;
     }
 
     @Override
@@ -52,35 +91,46 @@ public class MiniMax implements MoveStrategy {
     }
 
     // min is for black, to minimize white's advantage
-    public int min(final Board board, final int depth) {
-        if (depth == 0 /* or game over */) return this.boardEvaluator.evaluate(board, depth);
+    public int min(final SearchBoard board, final int depth) {
+        // a draw scores 0 for both sides
+        if (board.isDraw()) return 0;
+        if (depth == 0) return evaluate(board, depth);
         int lowestSeenValue = Integer.MAX_VALUE;
-        Player player = board.currentPlayer();
-        for (final Move move : player.getLegalMoves()) {
-            final MoveTransition moveTransition = player.makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                final int currentValue = max(moveTransition.getTransitionBoard(), depth - 1);
-                if (currentValue <= lowestSeenValue) {
-                    lowestSeenValue = currentValue;
-                }
+        final int start = depth * SearchBoard.MAX_MOVES;
+        final int end = board.generateLegalMoves(this.moveBuffer, start);
+        // game over, the evaluator tells checkmate from stalemate
+        if (end == start) return evaluate(board, depth);
+        for (int i = start; i < end; i++) {
+            board.makeMove(this.moveBuffer[i]);
+            final int currentValue = max(board, depth - 1);
+            board.unmakeMove();
+            if (currentValue <= lowestSeenValue) {
+                lowestSeenValue = currentValue;
             }
         }
         return lowestSeenValue;
     }
 
-    public int max(final Board board, final int depth) {
-        if (depth == 0 /* or game over */) return this.boardEvaluator.evaluate(board, depth);
+    public int max(final SearchBoard board, final int depth) {
+        if (board.isDraw()) return 0;
+        if (depth == 0) return evaluate(board, depth);
         int highestSeenValue = Integer.MIN_VALUE;
-        Player player = board.currentPlayer();
-        for (final Move move : player.getLegalMoves()) {
-            final MoveTransition moveTransition = player.makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                final int currentValue = min(moveTransition.getTransitionBoard(), depth - 1);
-                if (currentValue >= highestSeenValue) {
-                    highestSeenValue = currentValue;
-                }
+        final int start = depth * SearchBoard.MAX_MOVES;
+        final int end = board.generateLegalMoves(this.moveBuffer, start);
+        if (end == start) return evaluate(board, depth);
+        for (int i = start; i < end; i++) {
+            board.makeMove(this.moveBuffer[i]);
+            final int currentValue = min(board, depth - 1);
+            board.unmakeMove();
+            if (currentValue >= highestSeenValue) {
+                highestSeenValue = currentValue;
             }
         }
         return highestSeenValue;
     }
+
+    private int evaluate(final SearchBoard board, final int depth) {
+        this.boardsEvaluated++;
+        return this.boardEvaluator.evaluate(board, depth);
+    }
 }
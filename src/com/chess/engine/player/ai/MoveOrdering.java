@@ -0,0 +1,143 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// What the search has learnt about which moves are good, and the scores that order the moves of a
+// node from it. Best first:
+//
+//  the hash move, the best move the transposition table remembers for the position
+//  captures that don't lose material, most valuable victim first, then least valuable attacker
+//  the two killers of the ply, quiet moves that caused a cutoff in a sibling position
+//  the countermove, the quiet move that last refuted the opponent's previous move
+//  the other quiet moves by their history, how often they caused cutoffs anywhere in the tree
+//  captures that lose material once the recaptures are counted
+//
+// Every search thread has its own, the tables are written at every cutoff. MovePicker hands the moves
+// out in this order, generating the quiet moves only once the captures and killers are used up.
+final class MoveOrdering {
+    // killers and countermove, the quiet moves tried before the others
+    static final int NUM_REFUTATIONS = 3;
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int GOOD_CAPTURE_SCORE = 1 << 29;
+    private static final int KILLER_SCORE = 1 << 28;
+    private static final int COUNTER_MOVE_SCORE = KILLER_SCORE - 1;
+    private static final int BAD_CAPTURE_SCORE = -(1 << 29);
+    // history scores stay within plus or minus this, well clear of the countermove
+    private static final int MAX_HISTORY = 1 << 20;
+    private static final int KILLERS_PER_PLY = 2;
+    // moves are indexed by from and to tile, PackedMove bits 0-11
+    private static final int FROM_TO_MASK = 0xFFF;
+
+    private final int[][] killers;
+    private final int[][] counterMoves = new int[2][FROM_TO_MASK + 1];
+    private final int[][] history = new int[2][FROM_TO_MASK + 1];
+
+    MoveOrdering(final int maxPly) {
+        this.killers = new int[maxPly][KILLERS_PER_PLY];
+    }
+
+    // killers belong to the positions of one search, history is aged so that it still helps the
+    // next search but new cutoffs soon outweigh it
+    void newSearch() {
+        for (final int[] plyKillers : this.killers) {
+            plyKillers[0] = PackedMove.NULL_MOVE;
+            plyKillers[1] = PackedMove.NULL_MOVE;
+        }
+        for (final int[] sideHistory : this.history) {
+            for (int i = 0; i < sideHistory.length; i++) {
+                sideHistory[i] /= 2;
+            }
+        }
+    }
+
+    // ordering score of any legal move of the side to move, higher is searched first
+    int score(final SearchBoard board, final int move, final int hashMove, final int ply) {
+        final int compactMove = PackedMove.compact(move);
+        if (compactMove == PackedMove.compact(hashMove)) {
+            return HASH_MOVE_SCORE;
+        }
+        if (PackedMove.isTactical(move)) {
+            return captureScore(board, move);
+        }
+        final int[] plyKillers = this.killers[ply];
+        if (compactMove == plyKillers[0]) {
+            return KILLER_SCORE + 1;
+        }
+        if (compactMove == plyKillers[1]) {
+            return KILLER_SCORE;
+        }
+        if (compactMove == getCounterMove(board)) {
+            return COUNTER_MOVE_SCORE;
+        }
+        return quietScore(board, move);
+    }
+
+    // the first killer, the second killer or the countermove at ply, in compact form, for index 0 to 2
+    int getRefutation(final SearchBoard board, final int ply, final int index) {
+        return index < KILLERS_PER_PLY ? this.killers[ply][index] : getCounterMove(board);
+    }
+
+    private int getCounterMove(final SearchBoard board) {
+        final int lastMove = board.getLastMove();
+        return lastMove == PackedMove.NULL_MOVE
+                ? PackedMove.NULL_MOVE
+                : this.counterMoves[board.getSideToMove().ordinal()][lastMove & FROM_TO_MASK];
+    }
+
+    int quietScore(final SearchBoard board, final int move) {
+        return this.history[board.getSideToMove().ordinal()][move & FROM_TO_MASK];
+    }
+
+    // captures and promotions by MVV-LVA, positive unless they lose material
+    static int captureScore(final SearchBoard board, final int move) {
+        final PieceType capturedType = PackedMove.getCapturedType(move);
+        final int victim = (capturedType == null ? 0 : capturedType.getPieceValue())
+                + (PackedMove.isPromotion(move) ? PackedMove.getPromotionType(move).getPieceValue() : 0);
+        final int mvvLva = victim * 8 - PackedMove.getMovedType(move).ordinal();
+        return exchangeScore(board, move) >= 0 ? GOOD_CAPTURE_SCORE + mvvLva : BAD_CAPTURE_SCORE + mvvLva;
+    }
+
+    // material won by the move after all recaptures, a promotion also gains the queen for the pawn
+    static int exchangeScore(final SearchBoard board, final int move) {
+        final int promotionGain = PackedMove.isPromotion(move)
+                ? PieceType.QUEEN.getPieceValue() - PieceType.PAWN.getPieceValue()
+                : 0;
+        return board.staticExchangeEvaluation(move) + promotionGain;
+    }
+
+    // move caused a beta cutoff at ply, with the quiet moves in triedQuiets[from, to) searched
+    // before it without one. Only quiet moves are learnt, captures are ordered well without help
+    void updateCutoff(final SearchBoard board, final int move, final int ply, final int depth,
+                      final int[] triedQuiets, final int from, final int to) {
+        if (PackedMove.isTactical(move)) {
+            return;
+        }
+        final int compactMove = PackedMove.compact(move);
+        final int[] plyKillers = this.killers[ply];
+        if (plyKillers[0] != compactMove) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = compactMove;
+        }
+        final int side = board.getSideToMove().ordinal();
+        final int lastMove = board.getLastMove();
+        if (lastMove != PackedMove.NULL_MOVE) {
+            this.counterMoves[side][lastMove & FROM_TO_MASK] = compactMove;
+        }
+        // deep cutoffs say more than shallow ones, the moves that failed to cut lose as much
+        final int bonus = Math.min(depth * depth, MAX_HISTORY / 4);
+        updateHistory(side, move, bonus);
+        for (int i = from; i < to; i++) {
+            updateHistory(side, triedQuiets[i], -bonus);
+        }
+    }
+
+    // scores approach MAX_HISTORY ever more slowly and never pass it
+    private void updateHistory(final int side, final int move, final int bonus) {
+        final int[] sideHistory = this.history[side];
+        final int index = move & FROM_TO_MASK;
+        sideHistory[index] += bonus - sideHistory[index] * Math.abs(bonus) / MAX_HISTORY;
+    }
+}
@@ -0,0 +1,219 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+
+// Hands out the moves of one node best first, generating them in stages: the hash move, the captures,
+// the killers and the countermove, the quiet moves and last the captures that lose material. A stage
+// is only generated once the ones before it failed to cut the node off, so most cut nodes never
+// generate a quiet move. Within a stage the list is only sorted as far as moves are asked for, each
+// call swaps the best of the rest to the front.
+//
+// The hash move and the refutations come from other positions and are checked to be legal here
+// before they are searched, and skipped when the generated stages produce them again.
+//
+// Each ply of the search owns one picker, writing into its own MAX_MOVES entries of buffers shared
+// by all plies.
+final class MovePicker {
+    private enum Stage {
+        HASH_MOVE,
+        GENERATE_CAPTURES,
+        GOOD_CAPTURES,
+        REFUTATIONS,
+        GENERATE_QUIETS,
+        QUIETS,
+        BAD_CAPTURES,
+        // in check every evasion is generated at once, in quiescence every capture
+        GENERATE_ALL,
+        ALL,
+        DONE
+    }
+
+    private final int[] moves;
+    private final int[] scores;
+    private final int start;
+    private final int[] refutations = new int[MoveOrdering.NUM_REFUTATIONS];
+    private SearchBoard board;
+    private MoveOrdering ordering;
+    private Stage stage;
+    private int ply;
+    private int hashMove;
+    private int numRefutations;
+    private int current;
+    private int end;
+    // the captures that lose material, left behind by GOOD_CAPTURES
+    private int badCapturesStart;
+    private int badCapturesEnd;
+
+    MovePicker(final int[] moves, final int[] scores, final int start) {
+        this.moves = moves;
+        this.scores = scores;
+        this.start = start;
+    }
+
+    // every legal move, hashMove first if it is legal here
+    void init(final SearchBoard board, final MoveOrdering ordering, final int hashMove, final int ply) {
+        this.board = board;
+        this.ordering = ordering;
+        this.ply = ply;
+        this.hashMove = board.toLegalMove(hashMove);
+        this.numRefutations = 0;
+        this.stage = Stage.HASH_MOVE;
+    }
+
+    // captures and promotions only, or every evasion in check, by the material they win
+    void initCaptures(final SearchBoard board) {
+        this.end = board.generateCaptures(this.moves, this.start);
+        for (int i = this.start; i < this.end; i++) {
+            this.scores[i] = MoveOrdering.exchangeScore(board, this.moves[i]);
+        }
+        this.hashMove = PackedMove.NULL_MOVE;
+        this.current = this.start;
+        this.stage = Stage.ALL;
+    }
+
+    // the next move, NULL_MOVE when there are none left
+    int next() {
+        while (true) {
+            switch (this.stage) {
+                case HASH_MOVE:
+                    this.stage = this.board.isInCheck(this.board.getSideToMove())
+                            ? Stage.GENERATE_ALL
+                            : Stage.GENERATE_CAPTURES;
+                    if (this.hashMove != PackedMove.NULL_MOVE) {
+                        return this.hashMove;
+                    }
+                    break;
+                case GENERATE_CAPTURES:
+                    this.end = this.board.generateCaptures(this.moves, this.start);
+                    for (int i = this.start; i < this.end; i++) {
+                        this.scores[i] = MoveOrdering.captureScore(this.board, this.moves[i]);
+                    }
+                    this.current = this.start;
+                    this.stage = Stage.GOOD_CAPTURES;
+                    break;
+                case GOOD_CAPTURES:
+                    if (this.current < this.end) {
+                        selectBest(this.end);
+                        // from here on every capture loses material
+                        if (this.scores[this.current] >= 0) {
+                            final int move = this.moves[this.current++];
+                            if (move != this.hashMove) {
+                                return move;
+                            }
+                            break;
+                        }
+                    }
+                    this.badCapturesStart = this.current;
+                    this.badCapturesEnd = this.end;
+                    this.current = 0;
+                    this.stage = Stage.REFUTATIONS;
+                    break;
+                case REFUTATIONS:
+                    if (this.current < MoveOrdering.NUM_REFUTATIONS) {
+                        final int move = legalRefutation(this.ordering.getRefutation(this.board, this.ply, this.current++));
+                        if (move != PackedMove.NULL_MOVE) {
+                            this.refutations[this.numRefutations++] = move;
+                            return move;
+                        }
+                        break;
+                    }
+                    this.stage = Stage.GENERATE_QUIETS;
+                    break;
+                case GENERATE_QUIETS:
+                    this.current = this.badCapturesEnd;
+                    this.end = this.board.generateQuiets(this.moves, this.current);
+                    for (int i = this.current; i < this.end; i++) {
+                        this.scores[i] = this.ordering.quietScore(this.board, this.moves[i]);
+                    }
+                    this.stage = Stage.QUIETS;
+                    break;
+                case QUIETS:
+                    if (this.current < this.end) {
+                        selectBest(this.end);
+                        final int move = this.moves[this.current++];
+                        if (move != this.hashMove && !isRefutation(move)) {
+                            return move;
+                        }
+                        break;
+                    }
+                    this.current = this.badCapturesStart;
+                    this.stage = Stage.BAD_CAPTURES;
+                    break;
+                case BAD_CAPTURES:
+                    if (this.current < this.badCapturesEnd) {
+                        selectBest(this.badCapturesEnd);
+                        final int move = this.moves[this.current++];
+                        if (move != this.hashMove) {
+                            return move;
+                        }
+                        break;
+                    }
+                    this.stage = Stage.DONE;
+                    break;
+                case GENERATE_ALL:
+                    this.end = this.board.generateLegalMoves(this.moves, this.start);
+                    for (int i = this.start; i < this.end; i++) {
+                        this.scores[i] = this.ordering.score(this.board, this.moves[i], this.hashMove, this.ply);
+                    }
+                    this.current = this.start;
+                    this.stage = Stage.ALL;
+                    break;
+                case ALL:
+                    if (this.current < this.end) {
+                        selectBest(this.end);
+                        final int move = this.moves[this.current++];
+                        if (move != this.hashMove) {
+                            return move;
+                        }
+                        break;
+                    }
+                    this.stage = Stage.DONE;
+                    break;
+                default:
+                    return PackedMove.NULL_MOVE;
+            }
+        }
+    }
+
+    // ordering score of the move last handed out by initCaptures
+    int getScore() {
+        return this.scores[this.current - 1];
+    }
+
+    // a killer or countermove that is a legal quiet move here and not searched already
+    private int legalRefutation(final int compactMove) {
+        if (compactMove == PackedMove.NULL_MOVE || compactMove == PackedMove.compact(this.hashMove)) {
+            return PackedMove.NULL_MOVE;
+        }
+        final int move = this.board.toLegalMove(compactMove);
+        return move == PackedMove.NULL_MOVE || PackedMove.isTactical(move) || isRefutation(move)
+                ? PackedMove.NULL_MOVE
+                : move;
+    }
+
+    private boolean isRefutation(final int move) {
+        for (int i = 0; i < this.numRefutations; i++) {
+            if (this.refutations[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // swaps the best move between current and end to current, together with its score
+    private void selectBest(final int end) {
+        int best = this.current;
+        for (int i = this.current + 1; i < end; i++) {
+            if (this.scores[i] > this.scores[best]) {
+                best = i;
+            }
+        }
+        final int move = this.moves[best];
+        final int score = this.scores[best];
+        this.moves[best] = this.moves[this.current];
+        this.scores[best] = this.scores[this.current];
+        this.moves[this.current] = move;
+        this.scores[this.current] = score;
+    }
+}
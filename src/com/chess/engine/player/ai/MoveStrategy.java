@@ -3,6 +3,18 @@ package com.chess.engine.player.ai;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 
+import java.util.List;
+
 public interface MoveStrategy {
     Move execute(Board board, int depth);
+
+    // the moves that led to the boards passed to execute, eg the game's MoveLog, so that the search
+    // scores going back to one of the game's earlier positions for the third time as a draw
+    void setGameHistory(List<Move> moves);
+
+    // the move, score and principal variation found by the last call to execute
+    SearchResult getSearchResult();
+
+    // leaf positions scored by the last call to execute
+    long getNumBoardsEvaluated();
 }
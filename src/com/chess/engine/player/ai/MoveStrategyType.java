@@ -0,0 +1,41 @@
+package com.chess.engine.player.ai;
+
+// the search algorithms the engine can play with
+public enum MoveStrategyType {
+    MINIMAX {
+        @Override
+        public MoveStrategy create() {
+            return new MiniMax();
+        }
+    },
+    ALPHA_BETA {
+        @Override
+        public MoveStrategy create() {
+            return new AlphaBeta();
+        }
+    },
+    // one search thread per core
+    LAZY_SMP {
+        @Override
+        public MoveStrategy create() {
+            return new LazySmp(Runtime.getRuntime().availableProcessors());
+        }
+    },
+    // one fork join worker per core
+    YOUNG_BROTHERS_WAIT {
+        @Override
+        public MoveStrategy create() {
+            return new YoungBrothersWait();
+        }
+    };
+
+    // names the strategy to play with, eg -Dchess.moveStrategy=YOUNG_BROTHERS_WAIT
+    public static final String PROPERTY = "chess.moveStrategy";
+
+    public abstract MoveStrategy create();
+
+    // the strategy the system property names, ALPHA_BETA if none
+    public static MoveStrategyType fromConfiguration() {
+        return valueOf(System.getProperty(PROPERTY, ALPHA_BETA.name()));
+    }
+}
@@ -0,0 +1,136 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.util.List;
+
+// Thinks on the opponent's time. Once the engine has moved, ponder() takes the reply the search
+// expects, the second move of its principal variation, and searches the position after it in the
+// background without a time limit. When the opponent's move comes in, opponentMoved():
+//
+//  on a ponder hit, the expected move was played: the background search carries on as a normal timed
+//  search from the depth it has reached
+//  on a miss it is stopped, and a new search is started on the position actually reached
+//
+// Both searches go through the same strategy and so the same transposition table, which stays full of
+// the positions searched on the opponent's time either way. Each search gets the game's moves up to
+// the position it starts from, extended by the moves played since, see MoveStrategy#setGameHistory.
+// Meant to be driven from one thread, the GUI's or a driver's.
+public final class Ponderer {
+    private final TimedMoveStrategy strategy;
+    private Thread ponderThread;
+    private TimeManager ponderTimeManager;
+    private Move expectedMove;
+    // written by the ponder thread, read after joining it
+    private Move ponderMove;
+    private long ponderHits;
+    private long ponderMisses;
+
+    public Ponderer(final TimedMoveStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    // starts searching on the opponent's time, board is the position after the engine played the first
+    // move of result's principal variation and gameMoves the moves that led to the position result was
+    // searched from. Returns false if there is no reply to expect
+    public boolean ponder(final Board board, final SearchResult result, final List<Move> gameMoves) {
+        stop();
+        final List<Move> principalVariation = result.getPrincipalVariation();
+        if (principalVariation.size() < 2) {
+            return false;
+        }
+        final Move expectedMove = principalVariation.get(1);
+        final MoveTransition transition = makeMove(board, expectedMove);
+        if (transition == null) {
+            return false;
+        }
+        final Board ponderBoard = transition.getTransitionBoard();
+        this.strategy.setGameHistory(extend(gameMoves, principalVariation.get(0), expectedMove));
+        final TimeManager ponderTimeManager = TimeManager.infinite();
+        this.expectedMove = expectedMove;
+        this.ponderTimeManager = ponderTimeManager;
+        this.ponderMove = null;
+        this.ponderThread = new Thread(() -> this.ponderMove = this.strategy.execute(ponderBoard, ponderTimeManager),
+                "ponder");
+        this.ponderThread.setDaemon(true);
+        this.ponderThread.start();
+        return true;
+    }
+
+    // the opponent played opponentMove, leading to board, after the moves of gameMoves; returns the
+    // engine's reply, searched for as long as timeManager allows
+    public Move opponentMoved(final Move opponentMove,
+                              final Board board,
+                              final TimeManager timeManager,
+                              final List<Move> gameMoves) {
+        if (isPondering() && isSameMove(opponentMove, this.expectedMove)) {
+            this.ponderHits++;
+            this.ponderTimeManager.ponderHit(timeManager);
+            return finishPondering();
+        }
+        if (isPondering()) {
+            this.ponderMisses++;
+            stop();
+        }
+        this.strategy.setGameHistory(extend(gameMoves, opponentMove));
+        return this.strategy.execute(board, timeManager);
+    }
+
+    // abandons the search on the opponent's time, if any, eg when the game is over
+    public void stop() {
+        if (isPondering()) {
+            this.ponderTimeManager.stop();
+            finishPondering();
+        }
+    }
+
+    public boolean isPondering() {
+        return this.ponderThread != null;
+    }
+
+    // the reply the search on the opponent's time is based on, null when not pondering
+    public Move getExpectedMove() {
+        return this.expectedMove;
+    }
+
+    public long getNumPonderHits() {
+        return this.ponderHits;
+    }
+
+    public long getNumPonderMisses() {
+        return this.ponderMisses;
+    }
+
+    private Move finishPondering() {
+        Uninterruptibles.joinUninterruptibly(this.ponderThread);
+        this.ponderThread = null;
+        this.ponderTimeManager = null;
+        this.expectedMove = null;
+        return this.ponderMove;
+    }
+
+    private static List<Move> extend(final List<Move> gameMoves, final Move... moves) {
+        return ImmutableList.<Move>builder().addAll(gameMoves).add(moves).build();
+    }
+
+    // the moves of the principal variation were made on boards of their own, this plays the same move
+    // on board; null if it isn't legal there
+    private static MoveTransition makeMove(final Board board, final Move move) {
+        for (final Move legalMove : board.currentPlayer().getLegalMoves()) {
+            if (isSameMove(legalMove, move)) {
+                final MoveTransition transition = board.currentPlayer().makeMove(legalMove);
+                return transition.getMoveStatus().isDone() ? transition : null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSameMove(final Move move, final Move otherMove) {
+        return move.getCurrCoordinate() == otherMove.getCurrCoordinate()
+                && move.getDestinationCoordinate() == otherMove.getDestinationCoordinate();
+    }
+}
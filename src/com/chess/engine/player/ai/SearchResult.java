@@ -0,0 +1,87 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+// What a search found: the move to play, its score for the side to move, the depth of the last
+// completed iteration and the principal variation, the line both sides are expected to play.
+public final class SearchResult {
+    private final Move bestMove;
+    private final int score;
+    private final int depth;
+    private final List<Move> principalVariation;
+    private final long nodesSearched;
+    private final long elapsedMillis;
+
+    public SearchResult(final Move bestMove,
+                        final int score,
+                        final int depth,
+                        final List<Move> principalVariation,
+                        final long nodesSearched,
+                        final long elapsedMillis) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = ImmutableList.copyOf(principalVariation);
+        this.nodesSearched = nodesSearched;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // turns the packed moves of a line into moves, each on the board the previous one leads to
+    public static List<Move> toMoves(final Board board, final int[] line, final int length) {
+        final ImmutableList.Builder<Move> moves = ImmutableList.builder();
+        Board currentBoard = board;
+        for (int i = 0; i < length; i++) {
+            final Move move = PackedMove.toMove(currentBoard, line[i]);
+            moves.add(move);
+            currentBoard = move.execute();
+        }
+        return moves.build();
+    }
+
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    public long getNodesSearched() {
+        return this.nodesSearched;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder()
+                .append("depth ").append(this.depth)
+                .append(" score ").append(this.score)
+                .append(" nodes ").append(this.nodesSearched)
+                .append(" time ").append(this.elapsedMillis)
+                .append(" pv");
+        for (final Move move : this.principalVariation) {
+            // from and to tiles, Move#toString leaves out where the piece came from
+            builder.append(' ')
+                    .append(BoardUtils.getPGNFromCoordinate(move.getCurrCoordinate()))
+                    .append(BoardUtils.getPGNFromCoordinate(move.getDestinationCoordinate()));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.chess.engine.player.ai;
+
+// Counters of one search that tell how well its moves were ordered. With good ordering nearly every
+// node that fails high does so on the first move it searches.
+public final class SearchStatistics {
+    private long nodes;
+    private long quiescenceNodes;
+    private long cutNodes;
+    private long firstMoveCutoffs;
+    private long hashMoveCutoffs;
+    private long transpositionCutoffs;
+
+    void reset() {
+        this.nodes = 0;
+        this.quiescenceNodes = 0;
+        this.cutNodes = 0;
+        this.firstMoveCutoffs = 0;
+        this.hashMoveCutoffs = 0;
+        this.transpositionCutoffs = 0;
+    }
+
+    void countNode() {
+        this.nodes++;
+    }
+
+    void countQuiescenceNode() {
+        this.quiescenceNodes++;
+    }
+
+    // a node failed high on its moveNumber-th move, counted from 0
+    void countCutoff(final int moveNumber, final boolean isHashMove) {
+        this.cutNodes++;
+        if (moveNumber == 0) {
+            this.firstMoveCutoffs++;
+        }
+        if (isHashMove) {
+            this.hashMoveCutoffs++;
+        }
+    }
+
+    void countTranspositionCutoff() {
+        this.transpositionCutoffs++;
+    }
+
+    // nodes of the main search, quiescence nodes not included
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getQuiescenceNodes() {
+        return this.quiescenceNodes;
+    }
+
+    // nodes whose moves were searched until one failed high
+    public long getCutNodes() {
+        return this.cutNodes;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return this.firstMoveCutoffs;
+    }
+
+    public long getHashMoveCutoffs() {
+        return this.hashMoveCutoffs;
+    }
+
+    // nodes answered by the transposition table without searching a move
+    public long getTranspositionCutoffs() {
+        return this.transpositionCutoffs;
+    }
+
+    // share of the cut nodes that failed high on the first move
+    public double getFirstMoveCutoffRate() {
+        return this.cutNodes == 0 ? 0.0 : (double) this.firstMoveCutoffs / this.cutNodes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SearchStatistics nodes=%d qnodes=%d cutNodes=%d firstMoveCutoffs=%d (%.1f%%) hashMoveCutoffs=%d ttCutoffs=%d",
+                this.nodes, this.quiescenceNodes, this.cutNodes, this.firstMoveCutoffs,
+                100.0 * getFirstMoveCutoffRate(), this.hashMoveCutoffs, this.transpositionCutoffs);
+    }
+}
@@ -0,0 +1,61 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.FenUtilities;
+import com.chess.engine.board.TestPositions;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Measures how much faster LazySmp reaches a depth with more threads: searches the same positions
+// to the same depth with 1, 2, 4... threads, each time with an empty table, and prints the time to
+// depth, the speedup over one thread and the nodes searched per second. An untimed single thread
+// pass first gives the JIT compiler a chance, or the first run would look slow.
+// usage: SmpBenchmark [depth] [max threads] [fen ...]
+public final class SmpBenchmark {
+    private static final int DEFAULT_DEPTH = 9;
+    private static final int TABLE_SIZE_MB = 256;
+
+    private SmpBenchmark() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        final int maxThreads = args.length > 1
+                ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        final List<String> positions = args.length > 2
+                ? Arrays.asList(Arrays.copyOfRange(args, 2, args.length))
+                : TestPositions.FENS;
+
+        final TranspositionTable transpositionTable = new TranspositionTable(TABLE_SIZE_MB);
+        final LazySmp warmUp = new LazySmp(1, transpositionTable);
+        for (final String fen : positions) {
+            transpositionTable.clear();
+            warmUp.execute(FenUtilities.createGameFromFEN(fen), depth);
+        }
+
+        long singleThreadMillis = 0;
+        System.out.println("time to depth " + depth);
+        for (int numThreads = 1; numThreads <= maxThreads; numThreads *= 2) {
+            final LazySmp strategy = new LazySmp(numThreads, transpositionTable);
+            long totalMillis = 0;
+            long totalNodes = 0;
+            for (final String fen : positions) {
+                final Board board = FenUtilities.createGameFromFEN(fen);
+                transpositionTable.clear();
+                final long startTime = System.nanoTime();
+                strategy.execute(board, depth);
+                totalMillis += (System.nanoTime() - startTime) / 1_000_000;
+                totalNodes += strategy.getSearchResult().getNodesSearched();
+            }
+            if (numThreads == 1) {
+                singleThreadMillis = totalMillis;
+            }
+            System.out.printf("  %3d threads %,10d ms  speedup %5.2f  %,14d nodes %,12d nodes/s%n",
+                    numThreads, totalMillis, (double) singleThreadMillis / Math.max(1, totalMillis),
+                    totalNodes, totalNodes * 1000 / Math.max(1, totalMillis));
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.chess.engine.player.ai;
 
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.Player;
 
+import static com.chess.engine.board.BitBoardUtils.*;
+
 public final class StandardBoardEvaluator implements BoardEvaluator {
     private final static int CHECK_MATE_BONUS = 10000;
     private final static int CHECK_BONUS = 45;
@@ -13,6 +19,7 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
     private final static int ATTACK_MULTIPLIER = 1;
     private final static int TWO_BISHOPS_BONUS = 25;
     private static final StandardBoardEvaluator INSTANCE = new StandardBoardEvaluator();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
 
     private StandardBoardEvaluator() {
     }
@@ -27,6 +34,13 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return score(board.whitePlayer(), depth) - score(board.blackPlayer(), depth);
     }
 
+    // same terms as evaluate(Board, int), computed on the mutable search board
+    @Override
+    public int evaluate(final SearchBoard board,
+                        final int depth) {
+        return score(board, Alliance.WHITE, depth) - score(board, Alliance.BLACK, depth);
+    }
+
     public String evaluationDetails(final Board board, final int depth) {
         return
                 ("White Mobility : " + mobility(board.whitePlayer()) + "\n") +
@@ -52,13 +66,15 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
                 pieceEvaluations(player);
     }
 
+    // captures that don't lose material once the recaptures are counted
     private static int attacks(final Player player) {
         int attackScore = 0;
         for(final Move move : player.getLegalMoves()) {
             if(move.isCapturingMove()) {
                 final Piece movedPiece = move.getPieceToBeMoved();
                 final Piece attackedPiece = move.getAttackedPiece();
-                if(movedPiece.getPieceValue() <= attackedPiece.getPieceValue()) {
+                if(move.getBoard().getBitBoard().staticExchangeEvaluation(move.getCurrCoordinate(),
+                        move.getDestinationCoordinate(), movedPiece.getPieceType(), attackedPiece.getPieceType()) >= 0) {
                     attackScore++;
                 }
             }
@@ -103,4 +119,95 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return player.isCastled() ? CASTLE_BONUS : 0;
     }
 
+    /* Search board terms, castling is not tracked there and Player#isCastled never scores either */
+    private static int score(final SearchBoard board,
+                             final Alliance alliance,
+                             final int depth) {
+        return mobility(board, alliance) +
+                kingThreats(board, alliance, depth) +
+                attacks(board, alliance) +
+                pieceEvaluations(board, alliance);
+    }
+
+    private static int mobility(final SearchBoard board, final Alliance alliance) {
+        return MOBILITY_MULTIPLIER *
+                (int) ((board.countMoves(alliance) * 10.0f) / board.countMoves(alliance.opposite()));
+    }
+
+    private static int kingThreats(final SearchBoard board,
+                                   final Alliance alliance,
+                                   final int depth) {
+        final Alliance opponent = alliance.opposite();
+        if (board.isCheckmated(opponent)) {
+            return CHECK_MATE_BONUS * depthBonus(depth);
+        }
+        return board.isInCheck(opponent) ? CHECK_BONUS : 0;
+    }
+
+    // captures that don't lose material once the recaptures are counted
+    private static int attacks(final SearchBoard board, final Alliance alliance) {
+        final BitBoard bitBoard = board.getBitBoard();
+        final long occupied = bitBoard.getOccupied();
+        final Alliance opponent = alliance.opposite();
+        final long targets = bitBoard.getOccupancy(opponent);
+        int attackScore = 0;
+        for (final PieceType pieceType : PIECE_TYPES) {
+            long pieces = bitBoard.getPieces(alliance, pieceType);
+            while (pieces != 0) {
+                final int tile = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                long captures = attacksFrom(pieceType, alliance, tile, occupied) & targets;
+                while (captures != 0) {
+                    final int target = Long.numberOfTrailingZeros(captures);
+                    captures &= captures - 1;
+                    if (board.staticExchangeEvaluation(tile, target, pieceType, board.getPieceType(target)) >= 0) {
+                        attackScore++;
+                    }
+                }
+            }
+        }
+        if (alliance == board.getSideToMove() && board.getEnPassantTile() != -1) {
+            long enPassantAttackers = PAWN_ATTACKS[opponent.ordinal()][board.getEnPassantTile()]
+                    & bitBoard.getPieces(alliance, PieceType.PAWN);
+            while (enPassantAttackers != 0) {
+                final int tile = Long.numberOfTrailingZeros(enPassantAttackers);
+                enPassantAttackers &= enPassantAttackers - 1;
+                if (board.staticExchangeEvaluation(tile, board.getEnPassantTile(),
+                        PieceType.PAWN, PieceType.PAWN) >= 0) {
+                    attackScore++;
+                }
+            }
+        }
+        return attackScore * ATTACK_MULTIPLIER;
+    }
+
+    private static long attacksFrom(final PieceType pieceType,
+                                    final Alliance alliance,
+                                    final int tile,
+                                    final long occupied) {
+        switch (pieceType) {
+            case PAWN:
+                return PAWN_ATTACKS[alliance.ordinal()][tile];
+            case KNIGHT:
+                return KNIGHT_ATTACKS[tile];
+            case BISHOP:
+                return bishopAttacks(tile, occupied);
+            case ROOK:
+                return rookAttacks(tile, occupied);
+            case QUEEN:
+                return queenAttacks(tile, occupied);
+            default:
+                return KING_ATTACKS[tile];
+        }
+    }
+
+    private static int pieceEvaluations(final SearchBoard board, final Alliance alliance) {
+        final BitBoard bitBoard = board.getBitBoard();
+        int pieceValuationScore = 0;
+        for (final PieceType pieceType : PIECE_TYPES) {
+            pieceValuationScore += Long.bitCount(bitBoard.getPieces(alliance, pieceType)) * pieceType.getPieceValue();
+        }
+        final int numBishops = Long.bitCount(bitBoard.getPieces(alliance, PieceType.BISHOP));
+        return pieceValuationScore + (numBishops == 2 ? TWO_BISHOPS_BONUS : 0);
+    }
 }
@@ -0,0 +1,64 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.FenUtilities;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.TestPositions;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Runs every strategy on the same positions at the same depth and prints the move each picks,
+// the leaf positions it scored and how long it took, so the strategies can be compared.
+// usage: StrategyComparison [depth] [fen ...]
+public final class StrategyComparison {
+    private static final int DEFAULT_DEPTH = 4;
+
+    private StrategyComparison() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        final List<String> positions = args.length > 1
+                ? Arrays.asList(Arrays.copyOfRange(args, 1, args.length))
+                : TestPositions.FENS;
+
+        final MoveStrategyType[] types = MoveStrategyType.values();
+        final long[] totalBoardsEvaluated = new long[types.length];
+        final long[] totalMillis = new long[types.length];
+
+        for (final String fen : positions) {
+            final Board board = FenUtilities.createGameFromFEN(fen);
+            System.out.println(fen);
+            Move firstMove = null;
+            boolean agree = true;
+            for (final MoveStrategyType type : types) {
+                final MoveStrategy strategy = type.create();
+                final long startTime = System.nanoTime();
+                final Move move = strategy.execute(board, depth);
+                final long millis = (System.nanoTime() - startTime) / 1_000_000;
+                totalBoardsEvaluated[type.ordinal()] += strategy.getNumBoardsEvaluated();
+                totalMillis[type.ordinal()] += millis;
+                System.out.printf("  %-10s %-6s %,14d boards %,8d ms%n",
+                        strategy, describe(move), strategy.getNumBoardsEvaluated(), millis);
+                if (type.ordinal() == 0) {
+                    firstMove = move;
+                } else {
+                    agree &= describe(firstMove).equals(describe(move));
+                }
+            }
+            System.out.println(agree ? "  same move" : "  different moves");
+        }
+
+        System.out.println("total at depth " + depth);
+        for (final MoveStrategyType type : types) {
+            System.out.printf("  %-10s %,14d boards %,8d ms%n",
+                    type, totalBoardsEvaluated[type.ordinal()], totalMillis[type.ordinal()]);
+        }
+    }
+
+    private static String describe(final Move move) {
+        return move == null ? "none" : move.getCurrCoordinate() + "-" + move.getDestinationCoordinate();
+    }
+}
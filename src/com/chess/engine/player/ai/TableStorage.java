@@ -0,0 +1,20 @@
+package com.chess.engine.player.ai;
+
+// Where the longs of a TranspositionTable live. Reads and writes need not be atomic, the table
+// recognises torn entries by their key.
+public interface TableStorage {
+    // number of longs that can be stored
+    long size();
+
+    long get(long index);
+
+    void set(long index, long value);
+
+    void clear();
+
+    // the search age the stored entries belong to, 0 for a new storage
+    int loadAge();
+
+    // makes the entries and the age survive a restart, where the storage can
+    void flush(int age);
+}
@@ -0,0 +1,92 @@
+package com.chess.engine.player.ai;
+
+// Decides how long a search may run. The soft limit is checked between the iterations of an
+// iterative deepening search, once it has passed no new iteration is started. The hard limit
+// is checked while searching and aborts the iteration in progress.
+//
+// The limits may be changed from another thread while a search runs: a search on the opponent's time
+// has none until the predicted move is played, see Ponderer.
+public final class TimeManager {
+    // kept back for the GUI and for passing the move on, so the clock never runs out
+    private static final long MOVE_OVERHEAD_MILLIS = 50;
+    // moves assumed to be left in the game when the time control doesn't say
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    // how far past its share of the clock a difficult iteration may run
+    private static final int HARD_LIMIT_FACTOR = 4;
+
+    private volatile long softLimitMillis;
+    private volatile long hardLimitMillis;
+    private volatile long startTime;
+
+    private TimeManager(final long softLimitMillis, final long hardLimitMillis) {
+        this.softLimitMillis = softLimitMillis;
+        this.hardLimitMillis = hardLimitMillis;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    public static TimeManager forClock(final long remainingMillis, final long incrementMillis) {
+        return forClock(remainingMillis, incrementMillis, DEFAULT_MOVES_TO_GO);
+    }
+
+    // spends an even share of the clock on every move still to be played before the time control,
+    // plus most of the increment, which comes back after the move
+    public static TimeManager forClock(final long remainingMillis, final long incrementMillis, final int movesToGo) {
+        final long available = Math.max(0, remainingMillis - MOVE_OVERHEAD_MILLIS);
+        final long softLimit = Math.min(available, available / Math.max(1, movesToGo) + incrementMillis * 3 / 4);
+        // a search may overrun its share but never use up more than half of what is left,
+        // unless this is the last move before the time control
+        final long hardLimit = Math.min(softLimit * HARD_LIMIT_FACTOR, Math.max(softLimit, available / 2));
+        return new TimeManager(softLimit, hardLimit);
+    }
+
+    public static TimeManager forMoveTime(final long moveTimeMillis) {
+        final long limit = Math.max(0, moveTimeMillis - MOVE_OVERHEAD_MILLIS);
+        return new TimeManager(limit, limit);
+    }
+
+    // searches until the depth limit
+    public static TimeManager infinite() {
+        return new TimeManager(Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public void start() {
+        this.startTime = System.currentTimeMillis();
+    }
+
+    // from now on the search runs by the limits of timeManager, as if it had only just started
+    public void ponderHit(final TimeManager timeManager) {
+        this.startTime = System.currentTimeMillis();
+        this.softLimitMillis = timeManager.softLimitMillis;
+        this.hardLimitMillis = timeManager.hardLimitMillis;
+    }
+
+    // ends the search as if its time had run out
+    public void stop() {
+        this.softLimitMillis = 0;
+        this.hardLimitMillis = 0;
+    }
+
+    public long elapsedMillis() {
+        return System.currentTimeMillis() - this.startTime;
+    }
+
+    // the limit is read before the start time, so a limit set by ponderHit is never measured from
+    // the old start
+    public boolean isSoftLimitReached() {
+        final long limit = this.softLimitMillis;
+        return elapsedMillis() >= limit;
+    }
+
+    public boolean isHardLimitReached() {
+        final long limit = this.hardLimitMillis;
+        return elapsedMillis() >= limit;
+    }
+
+    public long getSoftLimitMillis() {
+        return this.softLimitMillis;
+    }
+
+    public long getHardLimitMillis() {
+        return this.hardLimitMillis;
+    }
+}
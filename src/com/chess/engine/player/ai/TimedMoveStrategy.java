@@ -0,0 +1,9 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+// a strategy that can also search for as long as a TimeManager allows
+public interface TimedMoveStrategy extends MoveStrategy {
+    Move execute(Board board, TimeManager timeManager);
+}
@@ -0,0 +1,211 @@
+package com.chess.engine.player.ai;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed size table of search results keyed by Zobrist key. An entry is packed into a single long:
+//
+//  bits  0-15  best move, PackedMove#compact
+//  bits 16-47  score
+//  bits 48-55  depth searched
+//  bits 56-57  bound: EXACT, LOWER_BOUND or UPPER_BOUND, never 0 so an entry is never 0
+//  bits 58-63  age of the search that stored it
+//
+// Every entry takes two longs, the key xor the entry and the entry. Threads read and write without
+// locks, when two writes to a slot interleave the key no longer matches what is read back and the
+// torn entry is treated as a miss. Entries are grouped in buckets of two: a depth-preferred slot that
+// keeps the deepest result of the current search and an always-replace slot that takes the rest.
+// The longs live in a TableStorage, on the heap or in a memory mapped file that survives restarts.
+public final class TranspositionTable {
+    public static final int EXACT = 1;
+    // the score is at least the stored one, the search failed high
+    public static final int LOWER_BOUND = 2;
+    // the score is at most the stored one, the search failed low
+    public static final int UPPER_BOUND = 3;
+
+    public static final long NO_ENTRY = 0L;
+
+    private static final int LONGS_PER_BUCKET = 4;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+    private static final int AGE_MASK = 0x3F;
+    // buckets looked at to estimate how full the table is
+    private static final int FILL_SAMPLE = 1000;
+
+    private final TableStorage storage;
+    private final long bucketMask;
+    private volatile int age;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder overwrites = new LongAdder();
+
+    // on the heap, rounded down to a power of two number of buckets
+    public TranspositionTable(final int sizeInMegabytes) {
+        this(new HeapTableStorage((int) Math.min(numLongs(sizeInMegabytes),
+                Long.highestOneBit(Integer.MAX_VALUE - 8))));
+    }
+
+    // only a power of two number of buckets of the storage is used
+    public TranspositionTable(final TableStorage storage) {
+        this.storage = storage;
+        this.bucketMask = Long.highestOneBit(storage.size() / LONGS_PER_BUCKET) - 1;
+        this.age = storage.loadAge() & AGE_MASK;
+    }
+
+    // off the heap in the file, with the entries it holds from an earlier run if it was written by a
+    // table of the same size and Zobrist keys
+    public static TranspositionTable openMapped(final Path file, final long sizeInMegabytes) {
+        return new TranspositionTable(MappedTableStorage.open(file, numLongs(sizeInMegabytes)));
+    }
+
+    private static long numLongs(final long sizeInMegabytes) {
+        final long bytes = Math.max(1, sizeInMegabytes) * 1024L * 1024L;
+        return Long.highestOneBit(bytes / BYTES_PER_BUCKET) * LONGS_PER_BUCKET;
+    }
+
+    public static int getMove(final long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int getScore(final long entry) {
+        return (int) (entry >> 16);
+    }
+
+    public static int getDepth(final long entry) {
+        return (int) (entry >>> 48) & 0xFF;
+    }
+
+    public static int getBound(final long entry) {
+        return (int) (entry >>> 56) & 0x3;
+    }
+
+    private static int getAge(final long entry) {
+        return (int) (entry >>> 58) & AGE_MASK;
+    }
+
+    private static long pack(final int move, final int score, final int depth, final int bound, final int age) {
+        return (move & 0xFFFFL)
+                | ((score & 0xFFFFFFFFL) << 16)
+                | ((long) (depth & 0xFF) << 48)
+                | ((long) bound << 56)
+                | ((long) age << 58);
+    }
+
+    // the entry stored for the position or NO_ENTRY
+    public long probe(final long key) {
+        this.probes.increment();
+        final long bucket = bucketIndex(key);
+        boolean occupied = false;
+        for (long slot = bucket; slot < bucket + LONGS_PER_BUCKET; slot += 2) {
+            final long entry = this.storage.get(slot + 1);
+            if ((this.storage.get(slot) ^ entry) == key && entry != NO_ENTRY) {
+                this.hits.increment();
+                return entry;
+            }
+            occupied |= entry != NO_ENTRY;
+        }
+        if (occupied) {
+            this.collisions.increment();
+        }
+        return NO_ENTRY;
+    }
+
+    public void store(final long key, final int move, final int score, final int depth, final int bound) {
+        this.stores.increment();
+        final long bucket = bucketIndex(key);
+        final int currentAge = this.age;
+        final long preferred = this.storage.get(bucket + 1);
+        final boolean samePosition = (this.storage.get(bucket) ^ preferred) == key;
+        // the deepest result of this search stays, anything left over from an earlier search may go
+        final long slot = preferred == NO_ENTRY
+                || samePosition
+                || getAge(preferred) != currentAge
+                || depth >= getDepth(preferred) ? bucket : bucket + 2;
+
+        final long previous = this.storage.get(slot + 1);
+        final boolean previousSamePosition = (this.storage.get(slot) ^ previous) == key;
+        // keep the known best move when the new result has none, eg after failing low
+        final int bestMove = move == 0 && previousSamePosition ? getMove(previous) : move;
+        if (previous != NO_ENTRY && !previousSamePosition) {
+            this.overwrites.increment();
+        }
+        final long entry = pack(bestMove, score, depth, bound, currentAge);
+        this.storage.set(slot, key ^ entry);
+        this.storage.set(slot + 1, entry);
+    }
+
+    // called before each new search so that results of earlier searches are replaced first
+    public void newSearch() {
+        this.age = (this.age + 1) & AGE_MASK;
+    }
+
+    // makes the entries survive a restart if the storage can keep them
+    public void flush() {
+        this.storage.flush(this.age);
+    }
+
+    public void clear() {
+        this.storage.clear();
+        this.age = 0;
+        this.probes.reset();
+        this.hits.reset();
+        this.collisions.reset();
+        this.stores.reset();
+        this.overwrites.reset();
+    }
+
+    public long getNumProbes() {
+        return this.probes.sum();
+    }
+
+    public long getNumHits() {
+        return this.hits.sum();
+    }
+
+    // probes that found the bucket holding other positions only
+    public long getNumCollisions() {
+        return this.collisions.sum();
+    }
+
+    public long getNumStores() {
+        return this.stores.sum();
+    }
+
+    // stores that replaced a different position
+    public long getNumOverwrites() {
+        return this.overwrites.sum();
+    }
+
+    public long getNumEntries() {
+        return (this.bucketMask + 1) * LONGS_PER_BUCKET / 2;
+    }
+
+    // estimated from the first buckets, entries of the current search per thousand
+    public int getFillPermill() {
+        final int buckets = (int) Math.min(FILL_SAMPLE, this.bucketMask + 1);
+        int used = 0;
+        for (int slot = 1; slot < buckets * LONGS_PER_BUCKET; slot += 2) {
+            final long entry = this.storage.get(slot);
+            if (entry != NO_ENTRY && getAge(entry) == this.age) {
+                used++;
+            }
+        }
+        return used * 1000 / (buckets * 2);
+    }
+
+    @Override
+    public String toString() {
+        final long numProbes = getNumProbes();
+        return String.format("TranspositionTable entries=%d probes=%d hits=%d (%.1f%%) collisions=%d stores=%d overwrites=%d fill=%d/1000",
+                getNumEntries(), numProbes, getNumHits(),
+                numProbes == 0 ? 0.0 : 100.0 * getNumHits() / numProbes,
+                getNumCollisions(), getNumStores(), getNumOverwrites(), getFillPermill());
+    }
+
+    private long bucketIndex(final long key) {
+        // the low bits pick the bucket, the whole key is still compared on probe
+        return (key & this.bucketMask) * LONGS_PER_BUCKET;
+    }
+}
@@ -0,0 +1,64 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.FenUtilities;
+import com.chess.engine.board.TestPositions;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Checks that a search reusing a table full of deeper results still searches its principal variation
+// out: searches each position to depth with a fresh AlphaBeta, then with one that has just searched the
+// same position two plies deeper, once with a single line and once in multi-PV mode. Every line must
+// reach the full depth unless it ends in mate or a draw, and the warm score must stay within an
+// aspiration window of the fresh one, the deeper entries below the principal variation may move it a
+// little. Throws on the first failure.
+// usage: WarmTableCheck [depth] [fen ...]
+public final class WarmTableCheck {
+    private static final int DEFAULT_DEPTH = 6;
+    private static final int NUM_LINES = 3;
+
+    private WarmTableCheck() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        final List<String> positions = args.length > 1
+                ? Arrays.asList(Arrays.copyOfRange(args, 1, args.length))
+                : TestPositions.FENS;
+
+        for (final String fen : positions) {
+            final Board board = FenUtilities.createGameFromFEN(fen);
+            final AlphaBeta fresh = new AlphaBeta();
+            fresh.execute(board, depth);
+            final SearchResult freshResult = fresh.getSearchResult();
+
+            final AlphaBeta warm = new AlphaBeta();
+            warm.execute(board, depth + 2);
+            warm.execute(board, depth);
+            final SearchResult warmResult = warm.getSearchResult();
+            checkLine(warmResult, depth, fen);
+            if (Math.abs(warmResult.getScore() - freshResult.getScore()) > AlphaBeta.ASPIRATION_WINDOW) {
+                throw new RuntimeException("Score " + warmResult.getScore() + " with a warm table, "
+                        + freshResult.getScore() + " without, in " + fen);
+            }
+
+            warm.setMultiPv(NUM_LINES);
+            warm.execute(board, depth);
+            for (final SearchResult line : warm.getSearchResults()) {
+                checkLine(line, depth, fen);
+            }
+            System.out.printf("%6d %6d  %s%n", freshResult.getScore(), warmResult.getScore(), fen);
+        }
+        System.out.println("all principal variations complete");
+    }
+
+    private static void checkLine(final SearchResult result, final int depth, final String fen) {
+        final int score = result.getScore();
+        final boolean isGameOver = Math.abs(score) >= AlphaBeta.MATE_THRESHOLD || score == 0;
+        if (result.getPrincipalVariation().size() < depth && !isGameOver) {
+            throw new RuntimeException("Principal variation cut short with a warm table: " + result + " in " + fen);
+        }
+    }
+}
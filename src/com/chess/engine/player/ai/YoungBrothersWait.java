@@ -0,0 +1,392 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Young Brothers Wait: a parallel alpha-beta search that splits the tree between threads instead of
+// sharing it. At a node the eldest brother, the first move, is searched alone, it usually sets the
+// bound the other moves are measured against. Only then are the younger brothers forked as tasks on
+// a ForkJoinPool, each on its own copy of the board, for idle threads to steal. A brother that raises
+// alpha tightens the window of the brothers that start after it, one that fails high aborts the
+// others together with everything they have forked in turn.
+//
+// Below MIN_SPLIT_DEPTH a subtree is too small to pay for a task and the brothers are searched in
+// turn. Plain alpha-beta with a transposition table and quiescence search, without AlphaBeta's
+// selective pruning; with a parallelism of 1 every run searches the same nodes.
+public class YoungBrothersWait implements MoveStrategy {
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int DRAW_SCORE = 0;
+    private static final int MAX_PLY = 128;
+    private static final int DELTA_MARGIN = 200;
+    // the least depth at which the younger brothers are forked
+    private static final int MIN_SPLIT_DEPTH = 3;
+    private static final int DEFAULT_TABLE_SIZE_MB = 64;
+    // quiet moves that failed to cut off aren't tracked here, see MoveOrdering#updateCutoff
+    private static final int[] NO_MOVES = new int[0];
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable transpositionTable;
+    private final BoardEvaluator boardEvaluator;
+    // a task holds a stack while it runs, tasks it steals while waiting for its brothers take another
+    private final Queue<SearchStack> searchStacks = new ConcurrentLinkedQueue<>();
+    private final LongAdder boardsEvaluated = new LongAdder();
+    private final LongAdder nodesSearched = new LongAdder();
+    // zobrist keys of the game's positions before the root, see setGameHistory
+    private long[] gameHistory = new long[0];
+    // written by the root node only
+    private int rootBestMove;
+    private SearchResult searchResult;
+
+    public YoungBrothersWait() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public YoungBrothersWait(final int parallelism) {
+        this(parallelism, new TranspositionTable(DEFAULT_TABLE_SIZE_MB));
+    }
+
+    public YoungBrothersWait(final int parallelism, final TranspositionTable transpositionTable) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.transpositionTable = transpositionTable;
+        this.boardEvaluator = StandardBoardEvaluator.get();
+    }
+
+    // iterative deepening up to depth, each iteration orders the moves of the next through the table
+    @Override
+    public Move execute(final Board board, final int depth) {
+        final long startTime = System.currentTimeMillis();
+        this.boardsEvaluated.reset();
+        this.nodesSearched.reset();
+        this.transpositionTable.newSearch();
+        for (final SearchStack searchStack : this.searchStacks) {
+            searchStack.moveOrdering.newSearch();
+        }
+        final SearchBoard searchBoard = new SearchBoard(board, this.gameHistory);
+
+        int bestMove = PackedMove.NULL_MOVE;
+        int score = 0;
+        int completedDepth = 0;
+        // checkmated or stalemated: no move, a score of 0 and no iterations, as with AlphaBeta
+        final boolean hasLegalMove = searchBoard.hasLegalMove(searchBoard.getSideToMove());
+        for (int iterationDepth = 1; iterationDepth <= depth && hasLegalMove; iterationDepth++) {
+            final int currentDepth = iterationDepth;
+            score = this.pool.invoke(ForkJoinTask.adapt(() -> searchRoot(searchBoard, currentDepth)));
+            bestMove = this.rootBestMove;
+            completedDepth = iterationDepth;
+        }
+
+        final int[] principalVariation = new int[completedDepth];
+        final int principalVariationLength = principalVariation(searchBoard, bestMove, principalVariation);
+        final Move move = bestMove == PackedMove.NULL_MOVE ? null : PackedMove.toMove(board, bestMove);
+        this.searchResult = new SearchResult(move, score, completedDepth,
+                SearchResult.toMoves(board, principalVariation, principalVariationLength),
+                this.nodesSearched.sum(), System.currentTimeMillis() - startTime);
+        return move;
+    }
+
+    @Override
+    public void setGameHistory(final List<Move> moves) {
+        this.gameHistory = SearchBoard.historyKeys(moves);
+    }
+
+    @Override
+    public SearchResult getSearchResult() {
+        return this.searchResult;
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated.sum();
+    }
+
+    public int getParallelism() {
+        return this.pool.getParallelism();
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    @Override
+    public String toString() {
+        return "YBWC";
+    }
+
+    private int searchRoot(final SearchBoard board, final int depth) {
+        this.rootBestMove = PackedMove.NULL_MOVE;
+        final SearchStack searchStack = acquireSearchStack();
+        try {
+            return search(board, searchStack, null, depth, -INFINITY, INFINITY);
+        } finally {
+            this.searchStacks.add(searchStack);
+        }
+    }
+
+    private int search(final SearchBoard board, final SearchStack searchStack, final SplitPoint splitPoint,
+                       final int depth, int alpha, final int beta) {
+        final int ply = board.getPly();
+        if (ply > 0 && board.isDraw()) {
+            return DRAW_SCORE;
+        }
+        if (depth <= 0) {
+            return quiescence(board, searchStack, splitPoint, alpha, beta);
+        }
+        this.nodesSearched.increment();
+        if (isAborted(splitPoint)) {
+            return 0;
+        }
+        final long key = board.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        if (ply > 0 && entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) >= depth) {
+            final int score = TranspositionTable.getScore(entry);
+            final int bound = TranspositionTable.getBound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                return score;
+            }
+        }
+
+        final MovePicker picker = searchStack.movePickers[ply];
+        picker.init(board, searchStack.moveOrdering, TranspositionTable.getMove(entry), ply);
+        final int eldestBrother = picker.next();
+        if (eldestBrother == PackedMove.NULL_MOVE) {
+            // checkmate or stalemate, the evaluator tells them apart
+            return evaluate(board, depth);
+        }
+        board.makeMove(eldestBrother);
+        int bestValue = -search(board, searchStack, splitPoint, depth - 1, -beta, -alpha);
+        board.unmakeMove();
+        if (isAborted(splitPoint)) {
+            return 0;
+        }
+        int bestMove = eldestBrother;
+        final int originalAlpha = alpha;
+        alpha = Math.max(alpha, bestValue);
+
+        if (alpha < beta && depth >= MIN_SPLIT_DEPTH) {
+            // the younger brothers, all at once
+            final SplitPoint brothers = new SplitPoint(splitPoint, alpha, beta);
+            final List<BrotherTask> tasks = new ArrayList<>();
+            for (int move = picker.next(); move != PackedMove.NULL_MOVE; move = picker.next()) {
+                tasks.add(new BrotherTask(brothers, new SearchBoard(board), move, depth));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            if (isAborted(splitPoint)) {
+                return 0;
+            }
+            for (final BrotherTask task : tasks) {
+                // brothers aborted by a cutoff have no value, the one that caused it does
+                final Integer value = task.join();
+                if (value != null && value > bestValue) {
+                    bestValue = value;
+                    bestMove = task.move;
+                }
+            }
+        } else if (alpha < beta) {
+            for (int move = picker.next(); move != PackedMove.NULL_MOVE; move = picker.next()) {
+                board.makeMove(move);
+                final int value = -search(board, searchStack, splitPoint, depth - 1, -beta, -alpha);
+                board.unmakeMove();
+                if (isAborted(splitPoint)) {
+                    return 0;
+                }
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestMove = move;
+                    if (value > alpha) {
+                        alpha = value;
+                        if (alpha >= beta) {
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (bestValue >= beta) {
+            searchStack.moveOrdering.updateCutoff(board, bestMove, ply, depth, NO_MOVES, 0, 0);
+        }
+        if (ply == 0) {
+            this.rootBestMove = bestMove;
+        }
+        this.transpositionTable.store(key, bestValue > originalAlpha ? PackedMove.compact(bestMove) : PackedMove.NULL_MOVE,
+                bestValue, depth, bestValue >= beta
+                        ? TranspositionTable.LOWER_BOUND
+                        : bestValue > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND);
+        return bestValue;
+    }
+
+    // as in AlphaBeta: stand pat unless in check, skip captures that lose material or can't reach alpha
+    private int quiescence(final SearchBoard board, final SearchStack searchStack, final SplitPoint splitPoint,
+                           int alpha, final int beta) {
+        this.nodesSearched.increment();
+        if (isAborted(splitPoint)) {
+            return 0;
+        }
+        final int ply = board.getPly();
+        if (ply >= MAX_PLY - 1) {
+            return evaluate(board, 0);
+        }
+        final boolean inCheck = board.isInCheck(board.getSideToMove());
+        int bestValue = -INFINITY;
+        if (!inCheck) {
+            bestValue = evaluate(board, 0);
+            if (bestValue >= beta) {
+                return bestValue;
+            }
+            alpha = Math.max(alpha, bestValue);
+        }
+        final int standPat = bestValue;
+
+        final MovePicker picker = searchStack.movePickers[ply];
+        picker.initCaptures(board);
+        int moveNumber = 0;
+        for (int move = picker.next(); move != PackedMove.NULL_MOVE; move = picker.next()) {
+            moveNumber++;
+            if (!inCheck
+                    && !PackedMove.isPromotion(move)
+                    && (picker.getScore() < 0
+                    || standPat + PackedMove.getCapturedType(move).getPieceValue() + DELTA_MARGIN <= alpha)) {
+                continue;
+            }
+            board.makeMove(move);
+            final int value = -quiescence(board, searchStack, splitPoint, -beta, -alpha);
+            board.unmakeMove();
+            if (value > bestValue) {
+                bestValue = value;
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (inCheck && moveNumber == 0) {
+            // checkmate
+            return evaluate(board, 0);
+        }
+        return bestValue;
+    }
+
+    // the first move followed by the best moves the table remembers, as long as they are legal
+    private int principalVariation(final SearchBoard board, final int firstMove, final int[] line) {
+        int length = 0;
+        int move = firstMove;
+        while (move != PackedMove.NULL_MOVE && length < line.length) {
+            line[length++] = move;
+            board.makeMove(move);
+            move = board.toLegalMove(TranspositionTable.getMove(this.transpositionTable.probe(board.getZobristKey())));
+        }
+        for (int i = 0; i < length; i++) {
+            board.unmakeMove();
+        }
+        return length;
+    }
+
+    private int evaluate(final SearchBoard board, final int depth) {
+        this.boardsEvaluated.increment();
+        final int value = this.boardEvaluator.evaluate(board, depth);
+        return board.getSideToMove().isWhite() ? value : -value;
+    }
+
+    private SearchStack acquireSearchStack() {
+        final SearchStack searchStack = this.searchStacks.poll();
+        return searchStack != null ? searchStack : new SearchStack();
+    }
+
+    private static boolean isAborted(final SplitPoint splitPoint) {
+        for (SplitPoint current = splitPoint; current != null; current = current.parent) {
+            if (current.aborted) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the younger brothers of a node, searched in parallel: the alpha they share and whether one of
+    // them failed high. Aborting a split point aborts every split point below it
+    private static final class SplitPoint {
+        private final SplitPoint parent;
+        private final AtomicInteger alpha;
+        private final int beta;
+        private volatile boolean aborted;
+
+        SplitPoint(final SplitPoint parent, final int alpha, final int beta) {
+            this.parent = parent;
+            this.alpha = new AtomicInteger(alpha);
+            this.beta = beta;
+        }
+
+        void update(final int value) {
+            this.alpha.accumulateAndGet(value, Math::max);
+            if (value >= this.beta) {
+                this.aborted = true;
+            }
+        }
+    }
+
+    // one younger brother on its own board, null when aborted before it finished
+    private final class BrotherTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final SplitPoint splitPoint;
+        private final SearchBoard board;
+        private final int move;
+        private final int depth;
+
+        BrotherTask(final SplitPoint splitPoint, final SearchBoard board, final int move, final int depth) {
+            this.splitPoint = splitPoint;
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (isAborted(this.splitPoint)) {
+                return null;
+            }
+            final SearchStack searchStack = acquireSearchStack();
+            try {
+                this.board.makeMove(this.move);
+                final int value = -search(this.board, searchStack, this.splitPoint, this.depth - 1,
+                        -this.splitPoint.beta, -this.splitPoint.alpha.get());
+                if (isAborted(this.splitPoint)) {
+                    return null;
+                }
+                this.splitPoint.update(value);
+                return value;
+            } finally {
+                YoungBrothersWait.this.searchStacks.add(searchStack);
+            }
+        }
+    }
+
+    // move buffers and move ordering for the plies a task searches
+    private static final class SearchStack {
+        private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+        private final MoveOrdering moveOrdering = new MoveOrdering(MAX_PLY);
+
+        SearchStack() {
+            final int[] moveBuffer = new int[MAX_PLY * SearchBoard.MAX_MOVES];
+            final int[] moveScores = new int[MAX_PLY * SearchBoard.MAX_MOVES];
+            for (int ply = 0; ply < MAX_PLY; ply++) {
+                this.movePickers[ply] = new MovePicker(moveBuffer, moveScores, ply * SearchBoard.MAX_MOVES);
+            }
+        }
+    }
+}
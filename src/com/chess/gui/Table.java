@@ -321,10 +321,7 @@ public class Table {
             if (humanMovedPiece != null
                     && humanMovedPiece.getPieceAlliance() == board.currentPlayer().getAlliance()) {
                 if (humanMovedPiece instanceof King) {
-                    Collection<CastleMove> castleMoves = board.currentPlayer().calculateCastleMoves(
-                            board.currentPlayer().getLegalMoves(),
-                            board.currentPlayer().getOpponent().getLegalMoves()
-                    );
+                    Collection<CastleMove> castleMoves = board.currentPlayer().calculateCastleMoves();
 
                     return ImmutableList.copyOf(
                             Iterables.concat(castleMoves, humanMovedPiece.calculateLegalMoves(board)));